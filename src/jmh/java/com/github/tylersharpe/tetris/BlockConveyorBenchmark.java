@@ -0,0 +1,65 @@
+package com.github.tylersharpe.tetris;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockConveyorBenchmark {
+
+  private static final Difficulty DIFFICULTY = Difficulty.MEDIUM;
+  private static final int DISTRIBUTION_SAMPLES = 1_000_000;
+  private static final double MAX_DEVIATIONS = 5.0;
+
+  private BlockConveyor conveyor;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    conveyor = new BlockConveyor();
+    conveyor.setDifficulty(DIFFICULTY);
+    for (BlockType specialType : BlockType.getSpecialBlocks()) {
+      conveyor.enableBlockType(DIFFICULTY, specialType);
+    }
+    conveyor.reset(42);
+    verifyDistribution();
+  }
+
+  /**
+   * Fails the trial if any block type's sampled frequency strays more than a few standard deviations from the
+   * frequency implied by the difficulty's spawn rates
+   */
+  private void verifyDistribution() {
+    int[] counts = new int[BlockType.values().length];
+    for (int i = 0; i < DISTRIBUTION_SAMPLES; i++) {
+      counts[conveyor.next().getType().ordinal()]++;
+    }
+
+    int totalWeight = 0;
+    for (BlockType type : BlockType.values()) {
+      totalWeight += DIFFICULTY.getSpawnRate(type);
+    }
+
+    for (BlockType type : BlockType.values()) {
+      double expectedProbability = (double) DIFFICULTY.getSpawnRate(type) / totalWeight;
+      double expectedCount = expectedProbability * DISTRIBUTION_SAMPLES;
+      double standardDeviation = Math.sqrt(DISTRIBUTION_SAMPLES * expectedProbability * (1 - expectedProbability));
+
+      if (Math.abs(counts[type.ordinal()] - expectedCount) > MAX_DEVIATIONS * standardDeviation) {
+        throw new IllegalStateException(String.format(
+          "%s was sampled %d times out of %d, expected about %.0f", type, counts[type.ordinal()], DISTRIBUTION_SAMPLES, expectedCount
+        ));
+      }
+    }
+  }
+
+  @Benchmark
+  public Block next() {
+    return conveyor.next();
+  }
+
+}
@@ -0,0 +1,63 @@
+package com.github.tylersharpe.tetris;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ScoreRepositoryBenchmark {
+
+  @Param({"10000", "100000", "1000000"})
+  private int storedScores;
+
+  private Path scoresFile;
+  private ScoreRepository repository;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    SplittableRandom random = new SplittableRandom(42);
+    Difficulty[] difficulties = Difficulty.values();
+
+    List<Score> scores = new ArrayList<>(storedScores);
+    for (int i = 0; i < storedScores; i++) {
+      Difficulty difficulty = difficulties[random.nextInt(difficulties.length)];
+      scores.add(new Score("Player " + i, random.nextInt(5000), random.nextInt(3600), difficulty, random.nextInt(250), random.nextInt(1, 11), LocalDate.now()));
+    }
+
+    scoresFile = Files.createTempFile("tetris-scores-benchmark", null);
+    try (var objectOutputStream = new ObjectOutputStream(new FileOutputStream(scoresFile.toFile()))) {
+      objectOutputStream.writeObject(scores);
+    }
+    repository = new ScoreRepository(scoresFile);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(scoresFile);
+  }
+
+  @Benchmark
+  public List<Score> getScores() throws IOException {
+    return repository.getScores(Difficulty.MEDIUM, 20);
+  }
+
+  @Benchmark
+  public int determineRank() throws IOException {
+    return repository.determineRank(2500);
+  }
+
+}
@@ -0,0 +1,115 @@
+package com.github.tylersharpe.tetris;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.awt.*;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TetrisGameBenchmark {
+
+  private static final int STACK_HEIGHT = 8;
+  private static final int BOTTOM_ROW = TetrisGame.VERTICAL_DIMENSION - 1;
+
+  private TetrisGame game;
+  private int spawnRow, spawnColumn;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    game = createMidGame(BlockType.T_BLOCK);
+    spawnRow = game.getActiveBlock().getRow();
+    spawnColumn = game.getActiveBlock().getColumn();
+  }
+
+  /** A game whose active block is a vertical line resting on the bottom, so each clear scans four rows */
+  @State(Scope.Thread)
+  public static class LineClearState {
+
+    private TetrisGame game;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      game = createMidGame(BlockType.STRAIGHT_LINE);
+      game.rotateActiveBlock(Rotation.CLOCKWISE);
+      game.getActiveBlock().setLocation(BOTTOM_ROW, 0);
+    }
+
+  }
+
+  private static TetrisGame createMidGame(BlockType activeBlockType) {
+    TetrisGame game = new TetrisGame();
+    game.setDifficulty(Difficulty.MEDIUM);
+    game.reset(42);
+    game.pause();
+
+    // A ragged, mid-game stack with one hole per row so no line is complete
+    for (int row = BOTTOM_ROW - STACK_HEIGHT + 1; row <= BOTTOM_ROW; row++) {
+      int hole = (row * 7) % TetrisGame.HORIZONTAL_DIMENSION;
+      for (int col = 0; col < TetrisGame.HORIZONTAL_DIMENSION; col++) {
+        if (col != hole) {
+          game.setColor(row, col, Color.GRAY);
+        }
+      }
+    }
+
+    game.clearActiveBlock();
+    game.spawn(new Block(activeBlockType));
+    return game;
+  }
+
+  @Benchmark
+  public void moveBlock(Blackhole blackhole) {
+    blackhole.consume(game.moveActiveBlockLeft());
+    blackhole.consume(game.moveActiveBlockRight());
+  }
+
+  @Benchmark
+  public boolean rotateActiveBlock() {
+    return game.rotateActiveBlock(Rotation.CLOCKWISE);
+  }
+
+  /** Slides the active block to the left wall and back to the right wall */
+  @Benchmark
+  public void superSlide(Blackhole blackhole) {
+    blackhole.consume(game.superSlideActiveBlockLeft());
+    blackhole.consume(game.superSlideActiveBlockRight());
+  }
+
+  /** Hard drops the active block onto the stack without locking it, then puts it back at the spawn position */
+  @Benchmark
+  public int dropCurrentBlock() {
+    game.dropCurrentBlock();
+    int droppedRow = game.getActiveBlock().getRow();
+    game.getActiveBlock().setLocation(spawnRow, spawnColumn);
+    return droppedRow;
+  }
+
+  /** Includes the cost of filling the four rows which are then cleared */
+  @Benchmark
+  public int clearCompleteLines(LineClearState state) {
+    for (int row = BOTTOM_ROW - 3; row <= BOTTOM_ROW; row++) {
+      for (int col = 0; col < TetrisGame.HORIZONTAL_DIMENSION; col++) {
+        state.game.setColor(row, col, Color.GRAY);
+      }
+    }
+    return state.game.clearCompleteLines();
+  }
+
+  @Benchmark
+  public Collection<ColoredSquare> getColoredSquares() {
+    return game.getColoredSquares();
+  }
+
+  @Benchmark
+  public Collection<ColoredSquare> getGhostSquares() {
+    return game.getGhostSquares();
+  }
+
+}
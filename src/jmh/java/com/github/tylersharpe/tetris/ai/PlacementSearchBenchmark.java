@@ -0,0 +1,52 @@
+package com.github.tylersharpe.tetris.ai;
+
+import com.github.tylersharpe.tetris.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlacementSearchBenchmark {
+
+  private static final int GARBAGE_ROWS = 10;
+
+  @Param({"STRAIGHT_LINE", "T_BLOCK", "S_BLOCK_L"})
+  private BlockType type;
+
+  private PlacementSearch search;
+  private Board board;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    search = new PlacementSearch(new BoardEvaluator(EvaluationWeights.DEFAULT));
+
+    // Ragged garbage with holes, so the search has overhangs to tuck beneath
+    TetrisGame game = new TetrisGame();
+    game.setDifficulty(Difficulty.EASY);
+    game.reset(42);
+    SplittableRandom random = new SplittableRandom(42);
+    for (int row = TetrisGame.VERTICAL_DIMENSION - GARBAGE_ROWS; row < TetrisGame.VERTICAL_DIMENSION; row++) {
+      for (int column = 0; column < TetrisGame.HORIZONTAL_DIMENSION; column++) {
+        if (random.nextInt(3) > 0) {
+          game.setColor(row, column, Color.GRAY);
+        }
+      }
+    }
+    board = game.copyBoard();
+  }
+
+  /** Each call evaluates every reachable placement of one block, typically a few dozen */
+  @Benchmark
+  public List<Placement> findPlacements() {
+    return search.findPlacements(board, type, 0, type.getStartRow(), TetrisGame.HORIZONTAL_DIMENSION / 2);
+  }
+
+}
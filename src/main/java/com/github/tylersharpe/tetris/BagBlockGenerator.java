@@ -0,0 +1,55 @@
+package com.github.tylersharpe.tetris;
+
+import java.util.SplittableRandom;
+
+/**
+ * Deals blocks from a shuffled bag holding one of each enabled block type, refilling the bag once it is empty. With
+ * only the default types enabled this is the classic 7-bag: every type appears exactly once in each run of 7 blocks.
+ * Spawn weights only decide which types are in the bag, not how often they appear.
+ */
+final class BagBlockGenerator implements BlockGenerator {
+
+  private final int[] spawnWeights;
+  private final int[] bag;
+  private int bagSize, bagPosition;
+
+  BagBlockGenerator(int[] spawnWeights) {
+    this.spawnWeights = spawnWeights;
+    this.bag = new int[spawnWeights.length];
+  }
+
+  @Override
+  public int next(SplittableRandom random) {
+    if (bagPosition == bagSize) {
+      refill(random);
+    }
+    return bag[bagPosition++];
+  }
+
+  @Override
+  public void onSpawnWeightsChanged() {
+    bagPosition = bagSize; // Forces a refill with the new set of types on the next draw
+  }
+
+  private void refill(SplittableRandom random) {
+    bagSize = 0;
+    for (int ordinal = 0; ordinal < spawnWeights.length; ordinal++) {
+      if (spawnWeights[ordinal] > 0) {
+        bag[bagSize++] = ordinal;
+      }
+    }
+    if (bagSize == 0) {
+      throw new IllegalStateException("At least one block type must be enabled");
+    }
+
+    // Fisher-Yates shuffle
+    for (int i = bagSize - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      int swap = bag[i];
+      bag[i] = bag[j];
+      bag[j] = swap;
+    }
+    bagPosition = 0;
+  }
+
+}
@@ -14,14 +14,30 @@ public class Block {
     this.type = Objects.requireNonNull(type, "'type' cannot be null");
   }
 
-  int getRow() {
+  Block(BlockType type, int orientation, int row, int column, boolean isHoldBlock) {
+    this(type);
+    this.orientation = orientation;
+    this.row = row;
+    this.column = column;
+    this.isHoldBlock = isHoldBlock;
+  }
+
+  public int getRow() {
     return row;
   }
 
-  int getColumn() {
+  public int getColumn() {
     return column;
   }
 
+  public int getOrientation() {
+    return orientation;
+  }
+
+  public BlockShape getShape() {
+    return type.getShape(orientation);
+  }
+
   Collection<ColoredSquare> getOccupiedSquares() {
     return type.calculateOccupiedSquares(orientation, row, column);
   }
@@ -38,7 +54,7 @@ public class Block {
     return isHoldBlock;
   }
 
-  BlockType getType() {
+  public BlockType getType() {
     return type;
   }
 
@@ -52,16 +68,27 @@ public class Block {
   }
 
   Block rotate(Rotation rotation) {
+    orientation = getRotatedOrientation(rotation);
+    return this;
+  }
+
+  /** @return The orientation this block would have after the given rotation, without actually rotating it */
+  int getRotatedOrientation(Rotation rotation) {
+    return rotateOrientation(orientation, rotation);
+  }
+
+  /** @return The orientation, from 0 to 3, reached by applying the given rotation to the given orientation */
+  public static int rotateOrientation(int orientation, Rotation rotation) {
     int orientationChange = rotation == Rotation.CLOCKWISE ? 1 : -1;
-    orientation += orientationChange;
-    if (orientation > 3) {
-      orientation = 0;
+    int rotatedOrientation = orientation + orientationChange;
+    if (rotatedOrientation > 3) {
+      rotatedOrientation = 0;
     }
-    if (orientation < 0) {
-      orientation = 3;
+    if (rotatedOrientation < 0) {
+      rotatedOrientation = 3;
     }
 
-    return this;
+    return rotatedOrientation;
   }
 
   Block copy() {
@@ -0,0 +1,17 @@
+package com.github.tylersharpe.tetris;
+
+import java.util.SplittableRandom;
+
+/**
+ * Stateful source of block types for a single game. Generators read the owning conveyor's spawn weights (indexed by
+ * block type ordinal, with 0 meaning the type is disabled) and must not allocate when drawing.
+ */
+interface BlockGenerator {
+
+  /** @return Ordinal of the next block type */
+  int next(SplittableRandom random);
+
+  /** Called whenever the enabled block types or their spawn weights change */
+  void onSpawnWeightsChanged();
+
+}
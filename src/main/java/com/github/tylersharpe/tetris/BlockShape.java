@@ -0,0 +1,98 @@
+package com.github.tylersharpe.tetris;
+
+import java.util.Arrays;
+
+/**
+ * Immutable, precomputed occupancy table for a single orientation of a {@link BlockType}. The shape is stored as one
+ * bit mask per row of its bounding box, positioned relative to the owning block's anchor square so placements can be
+ * tested directly against the {@link Board}'s row masks.
+ */
+public final class BlockShape {
+
+  private final int[][] offsets;
+  private final int topOffset, leftOffset;
+  private final int width, height;
+  private final int[] rowMasks;
+  private final int[] bottomOffsets;
+
+  BlockShape(int[][] offsets) {
+    int minRow = Integer.MAX_VALUE, maxRow = Integer.MIN_VALUE;
+    int minCol = Integer.MAX_VALUE, maxCol = Integer.MIN_VALUE;
+    for (int[] offset : offsets) {
+      minRow = Math.min(minRow, offset[0]);
+      maxRow = Math.max(maxRow, offset[0]);
+      minCol = Math.min(minCol, offset[1]);
+      maxCol = Math.max(maxCol, offset[1]);
+    }
+
+    this.offsets = offsets;
+    this.topOffset = minRow;
+    this.leftOffset = minCol;
+    this.height = maxRow - minRow + 1;
+    this.width = maxCol - minCol + 1;
+    this.rowMasks = new int[height];
+    this.bottomOffsets = new int[width];
+
+    Arrays.fill(bottomOffsets, Integer.MIN_VALUE);
+    for (int[] offset : offsets) {
+      int maskRow = offset[0] - minRow;
+      int maskCol = offset[1] - minCol;
+      rowMasks[maskRow] |= (1 << maskCol);
+      bottomOffsets[maskCol] = Math.max(bottomOffsets[maskCol], offset[0]);
+    }
+  }
+
+  /** @return Number of squares making up this shape */
+  public int getSquareCount() {
+    return offsets.length;
+  }
+
+  /** @return Row offset from the block's anchor of the given square, where 0 <= index < {@link #getSquareCount()} */
+  public int getRowOffset(int squareIndex) {
+    return offsets[squareIndex][0];
+  }
+
+  /** @return Column offset from the block's anchor of the given square, where 0 <= index < {@link #getSquareCount()} */
+  public int getColumnOffset(int squareIndex) {
+    return offsets[squareIndex][1];
+  }
+
+  /** @return Row offset from the block's anchor of the top row of this shape's bounding box */
+  public int getTopOffset() {
+    return topOffset;
+  }
+
+  /** @return Column offset from the block's anchor of the leftmost column of this shape's bounding box */
+  public int getLeftOffset() {
+    return leftOffset;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  /** @return Occupied columns of the given bounding box row, with bit 0 representing the leftmost bounding box column */
+  public int getRowMask(int boundingBoxRow) {
+    return rowMasks[boundingBoxRow];
+  }
+
+  /** @return Whether this shape has a square at the given row and column offset from the block's anchor */
+  public boolean occupies(int rowOffset, int columnOffset) {
+    int maskRow = rowOffset - topOffset;
+    int maskCol = columnOffset - leftOffset;
+    return maskRow >= 0 && maskRow < height && maskCol >= 0 && maskCol < width && (rowMasks[maskRow] & (1 << maskCol)) != 0;
+  }
+
+  /**
+   * @return Row offset from the block's anchor of the lowest occupied square in the given bounding box column, or
+   *         {@link Integer#MIN_VALUE} if no square of this shape falls in that column
+   */
+  public int getBottomOffset(int boundingBoxColumn) {
+    return bottomOffsets[boundingBoxColumn];
+  }
+
+}
@@ -391,6 +391,7 @@ public enum BlockType {
   );
 
   private final int[][][] offsets;
+  private final BlockShape[] shapes;
   private final int[][] previewPanelSquares;
   private final int startRow;
   private final Color color;
@@ -403,6 +404,7 @@ public enum BlockType {
 
   BlockType(int[][][] offsets, int[][] previewPanelSquares, int startRow, Color color, boolean isSpecial, int bonusPointsPerLine) {
     this.offsets = offsets;
+    this.shapes = Arrays.stream(offsets).map(BlockShape::new).toArray(BlockShape[]::new);
     this.previewPanelSquares = previewPanelSquares;
     this.startRow = startRow;
     this.color = color;
@@ -444,6 +446,11 @@ public enum BlockType {
     return isSpecial;
   }
 
+  /** @return Precomputed shape of this block type in the given orientation, from 0 to 3 */
+  public BlockShape getShape(int orientation) {
+    return shapes[orientation];
+  }
+
   public Collection<ColoredSquare> calculateOccupiedSquares(int orientation, int row, int col) {
     if (orientation < 0 || orientation > 3) {
       throw new IllegalArgumentException("Orientation value must be between 0 and 3");
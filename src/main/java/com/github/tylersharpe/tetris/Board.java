@@ -0,0 +1,485 @@
+package com.github.tylersharpe.tetris;
+
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * Bit-packed model of the squares persisted on the playfield. Each row is stored as one or more long words where bit N
+ * of word W is set when column 64W + N is occupied, so collision and complete-line checks reduce to a few bitwise
+ * operations on boards of any width. Square colors live in a separate plane which is only consulted for rendering. The
+ * board also keeps a running count of occupied squares per row, so full rows are detected in constant time, and the
+ * surface height of every column, so landing positions can be computed without stepping a block down row by row.
+ *
+ * <p>Outside this package a board is only ever handed out as a copy, so the read methods and {@link #lock} let AI
+ * players test and play out placements with exactly the same collision rules as the game itself.
+ */
+public final class Board {
+
+  private static final int MAX_REMOVED_ROW_SPAN = Integer.SIZE - 1;
+
+  private final int rows, columns;
+  private final int wordsPerRow;
+  private final long[] words; // Row-major, wordsPerRow words per row
+  private final int[] rowFills; // Number of occupied squares in each row
+  private final long[] rowHashes; // XOR of the Zobrist column keys of each row's occupied squares
+  private final Color[][] colors; // Null for occupancy-only copies
+  private final Color[][] removedRowColors; // Scratch space for recycling the color storage of removed rows
+  private final int[] columnSurfaces; // Row of the topmost occupied square in each column, or 'rows' if the column is empty
+  private long zobristHash; // XOR of the Zobrist row keys of every occupied row
+
+  // Rows whose squares changed since the last call to takeChangedRows(); none when changedBottomRow < changedTopRow. Only
+  // tracked for boards with colors, and guarded by this board's lock since the game and its renderer run on different threads
+  private int changedTopRow, changedBottomRow;
+
+  Board(int rows, int columns) {
+    if (rows < 1 || columns < 1) {
+      throw new IllegalArgumentException("Board must have at least 1 row and 1 column");
+    }
+
+    this.rows = rows;
+    this.columns = columns;
+    this.wordsPerRow = (columns + Long.SIZE - 1) / Long.SIZE;
+    this.words = new long[rows * wordsPerRow];
+    this.rowFills = new int[rows];
+    this.rowHashes = new long[rows];
+    this.colors = new Color[rows][columns];
+    this.removedRowColors = new Color[MAX_REMOVED_ROW_SPAN][];
+    this.columnSurfaces = new int[columns];
+    Arrays.fill(columnSurfaces, rows);
+    markChanged(0, rows - 1);
+  }
+
+  private Board(Board source, boolean copyColors) {
+    this.rows = source.rows;
+    this.columns = source.columns;
+    this.wordsPerRow = source.wordsPerRow;
+    this.words = source.words.clone();
+    this.rowFills = source.rowFills.clone();
+    this.rowHashes = source.rowHashes.clone();
+    this.columnSurfaces = source.columnSurfaces.clone();
+    this.zobristHash = source.zobristHash;
+    this.changedTopRow = source.changedTopRow;
+    this.changedBottomRow = source.changedBottomRow;
+
+    if (copyColors && source.colors != null) {
+      this.colors = new Color[rows][];
+      for (int row = 0; row < rows; row++) {
+        this.colors[row] = source.colors[row].clone();
+      }
+      this.removedRowColors = new Color[MAX_REMOVED_ROW_SPAN][];
+    } else {
+      this.colors = null;
+      this.removedRowColors = null;
+    }
+  }
+
+  /** @return An independent copy of this board, including square colors */
+  public Board copy() {
+    return new Board(this, true);
+  }
+
+  /**
+   * @return An independent copy of this board which only tracks which squares are occupied. Much cheaper to create than
+   *         {@link #copy()}, which makes it the right choice for searching through hypothetical placements.
+   */
+  public Board copyOccupancy() {
+    return new Board(this, false);
+  }
+
+  public int getRows() {
+    return rows;
+  }
+
+  public int getColumns() {
+    return columns;
+  }
+
+  public boolean isOpenAndInBounds(int row, int column) {
+    return row >= 0 && row < rows && column >= 0 && column < columns && !isOccupied(row, column);
+  }
+
+  /**
+   * @return Whether the given shape can be anchored at the given row and column without leaving the board or
+   *         overlapping any persisted square
+   */
+  public boolean fits(BlockShape shape, int row, int column) {
+    int top = row + shape.getTopOffset();
+    int left = column + shape.getLeftOffset();
+    if (top < 0 || left < 0 || top + shape.getHeight() > rows || left + shape.getWidth() > columns) {
+      return false;
+    }
+
+    int bit = left & (Long.SIZE - 1);
+    boolean straddlesWords = bit + shape.getWidth() > Long.SIZE;
+    int index = top * wordsPerRow + (left >>> 6);
+
+    for (int shapeRow = 0; shapeRow < shape.getHeight(); shapeRow++, index += wordsPerRow) {
+      long rowMask = shape.getRowMask(shapeRow);
+      if ((words[index] & (rowMask << bit)) != 0 || straddlesWords && (words[index + 1] & (rowMask >>> (Long.SIZE - bit))) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public boolean isOccupied(int row, int column) {
+    return (words[row * wordsPerRow + (column >>> 6)] & (1L << column)) != 0;
+  }
+
+  /**
+   * @return The first occupied column of the given row at or after the given column, or {@link #getColumns()} if there
+   *         is none. Skips empty stretches a word at a time, so walking a row's squares costs no more than its squares.
+   */
+  public int nextOccupiedColumn(int row, int fromColumn) {
+    if (fromColumn >= columns) {
+      return columns;
+    }
+
+    int wordIndex = fromColumn >>> 6;
+    int rowStart = row * wordsPerRow;
+    long word = words[rowStart + wordIndex] & (-1L << fromColumn);
+
+    while (word == 0) {
+      if (++wordIndex == wordsPerRow) {
+        return columns;
+      }
+      word = words[rowStart + wordIndex];
+    }
+    return wordIndex * Long.SIZE + Long.numberOfTrailingZeros(word);
+  }
+
+  /** @return Color of the given square, or null if it is empty or this board doesn't track colors */
+  public Color getColor(int row, int column) {
+    return colors == null ? null : colors[row][column];
+  }
+
+  void setColor(int row, int column, Color color) {
+    if (colors != null) {
+      colors[row][column] = color;
+    }
+    markChanged(row, row);
+
+    int index = row * wordsPerRow + (column >>> 6);
+    long columnBit = 1L << column;
+    boolean wasOccupied = (words[index] & columnBit) != 0;
+
+    if (color == null) {
+      if (wasOccupied) {
+        words[index] &= ~columnBit;
+        rowFills[row]--;
+        toggleRowHash(row, Zobrist.columnKey(column));
+      }
+      if (columnSurfaces[column] == row) {
+        columnSurfaces[column] = findSurface(column, row + 1);
+      }
+    } else {
+      if (!wasOccupied) {
+        words[index] |= columnBit;
+        rowFills[row]++;
+        toggleRowHash(row, Zobrist.columnKey(column));
+      }
+      columnSurfaces[column] = Math.min(columnSurfaces[column], row);
+    }
+  }
+
+  private void toggleRowHash(int row, long columnKeys) {
+    zobristHash ^= rowKey(row, rowHashes[row]);
+    rowHashes[row] ^= columnKeys;
+    zobristHash ^= rowKey(row, rowHashes[row]);
+  }
+
+  /** @return A row's contribution to the board hash. Empty rows contribute nothing */
+  private static long rowKey(int row, long rowHash) {
+    return rowHash == 0 ? 0 : Zobrist.rowKey(row, rowHash);
+  }
+
+  /**
+   * @return How many rows the given shape, currently anchored at the given row and column, can fall before landing.
+   *         Computed from the column surfaces and the shape's bottom profile, so the cost doesn't depend on the
+   *         distance fallen.
+   */
+  public int getDropDistance(BlockShape shape, int row, int column) {
+    int left = column + shape.getLeftOffset();
+    int dropDistance = Integer.MAX_VALUE;
+
+    for (int shapeColumn = 0; shapeColumn < shape.getWidth(); shapeColumn++) {
+      int bottomOffset = shape.getBottomOffset(shapeColumn);
+      if (bottomOffset == Integer.MIN_VALUE) {
+        continue;
+      }
+
+      int bottomRow = row + bottomOffset;
+      int surface = columnSurfaces[left + shapeColumn];
+      if (bottomRow >= surface) {
+        // Block is tucked beneath an overhang, so the surface doesn't describe where it will land
+        return stepDropDistance(shape, row, column);
+      }
+      dropDistance = Math.min(dropDistance, surface - 1 - bottomRow);
+    }
+
+    return dropDistance;
+  }
+
+  /**
+   * @return Row of the topmost occupied square in the given column, or {@link #getRows()} if the column is empty
+   */
+  public int getColumnSurface(int column) {
+    return columnSurfaces[column];
+  }
+
+  /**
+   * @return Zobrist hash of which squares are occupied. Boards with the same occupancy always have the same hash. Built
+   *         from one key per occupied row, so clearing lines only rehashes the rows which moved.
+   */
+  public long getZobristHash() {
+    return zobristHash;
+  }
+
+  /**
+   * @return The Zobrist hash this board would have after persisting the given shape at the given anchor, assuming it
+   *         fits and completes no rows
+   */
+  public long getZobristHashWith(BlockShape shape, int row, int column) {
+    int top = row + shape.getTopOffset();
+    int left = column + shape.getLeftOffset();
+    long hash = zobristHash;
+
+    for (int shapeRow = 0; shapeRow < shape.getHeight(); shapeRow++) {
+      long columnKeys = 0;
+      for (int rowMask = shape.getRowMask(shapeRow); rowMask != 0; rowMask &= rowMask - 1) {
+        columnKeys ^= Zobrist.columnKey(left + Integer.numberOfTrailingZeros(rowMask));
+      }
+
+      long rowHash = rowHashes[top + shapeRow];
+      hash ^= rowKey(top + shapeRow, rowHash) ^ rowKey(top + shapeRow, rowHash ^ columnKeys);
+    }
+    return hash;
+  }
+
+  /**
+   * @return How many rows would be completed by persisting the given shape at the given anchor, without persisting it.
+   *         The shape is assumed to fit.
+   */
+  public int countCompletedRows(BlockShape shape, int row, int column) {
+    int top = row + shape.getTopOffset();
+    int completedRows = 0;
+    for (int shapeRow = 0; shapeRow < shape.getHeight(); shapeRow++) {
+      if (rowFills[top + shapeRow] + Integer.bitCount(shape.getRowMask(shapeRow)) == columns) {
+        completedRows++;
+      }
+    }
+    return completedRows;
+  }
+
+  /**
+   * Persists the given shape at the given anchor and removes any rows it completes, exactly as the game does when a
+   * block lands. The shape is assumed to fit.
+   *
+   * @return The number of rows removed
+   */
+  public int lock(BlockShape shape, int row, int column, Color color) {
+    for (int square = 0; square < shape.getSquareCount(); square++) {
+      setColor(row + shape.getRowOffset(square), column + shape.getColumnOffset(square), color);
+    }
+
+    int topRow = row + shape.getTopOffset();
+    int bottomRow = topRow + shape.getHeight() - 1;
+    return removeFullRows(Math.max(0, topRow), Math.min(rows - 1, bottomRow));
+  }
+
+  /**
+   * Finds where a newly spawned shape should be anchored, starting from the given row and pushing the shape upwards past
+   * the top of the board while it is blocked.
+   *
+   * @return The spawn row, or {@link Integer#MIN_VALUE} if the shape cannot spawn with any square in the visible rows
+   */
+  public int findSpawnRow(BlockShape shape, int startRow, int column, int hiddenRows) {
+    for (int row = startRow; row + shape.getTopOffset() + shape.getHeight() - 1 >= hiddenRows; row--) {
+      if (fits(shape, row, column)) {
+        return row;
+      }
+    }
+    return Integer.MIN_VALUE;
+  }
+
+  private int stepDropDistance(BlockShape shape, int row, int column) {
+    int dropDistance = 0;
+    while (fits(shape, row + dropDistance + 1, column)) {
+      dropDistance++;
+    }
+    return dropDistance;
+  }
+
+  private int findSurface(int column, int fromRow) {
+    int row = fromRow;
+    while (row < rows && !isOccupied(row, column)) {
+      row++;
+    }
+    return row;
+  }
+
+  /** @return The topmost row with any occupied square, or {@link #getRows()} if the board is empty */
+  private int findStackTop() {
+    int stackTop = rows;
+    for (int surface : columnSurfaces) {
+      stackTop = Math.min(stackTop, surface);
+    }
+    return stackTop;
+  }
+
+  public boolean isRowFull(int row) {
+    return rowFills[row] == columns;
+  }
+
+  public boolean isRowEmpty(int row) {
+    return rowFills[row] == 0;
+  }
+
+  /**
+   * Removes every full row between the given rows (inclusive) in a single pass, shifting the rows above them down. Only
+   * the rows between the top of the stack and the lowest removed row are touched, however tall the board, and the color
+   * storage of removed rows is recycled for the rows vacated at the top of the stack rather than allocating new ones.
+   * The range may span at most 31 rows.
+   *
+   * @return The number of rows removed
+   */
+  int removeFullRows(int topRow, int bottomRow) {
+    if (bottomRow - topRow >= MAX_REMOVED_ROW_SPAN) {
+      throw new IllegalArgumentException("Cannot scan more than " + MAX_REMOVED_ROW_SPAN + " rows at once");
+    }
+
+    int removedRows = 0; // Bit N set = row (topRow + N) is removed
+    for (int row = topRow; row <= bottomRow; row++) {
+      if (isRowFull(row)) {
+        removedRows |= 1 << (row - topRow);
+      }
+    }
+    if (removedRows == 0) {
+      return 0;
+    }
+
+    // Every row between the top of the stack and the bottom removed row either moves or is removed, so unhash them all
+    int stackTop = findStackTop();
+    for (int row = stackTop; row <= bottomRow; row++) {
+      zobristHash ^= rowKey(row, rowHashes[row]);
+    }
+
+    int removedCount = 0;
+    int writeRow = bottomRow;
+    for (int readRow = bottomRow; readRow >= stackTop; readRow--) {
+      if (readRow >= topRow && (removedRows & (1 << (readRow - topRow))) != 0) {
+        if (colors != null) {
+          removedRowColors[removedCount] = colors[readRow];
+        }
+        removedCount++;
+      } else {
+        System.arraycopy(words, readRow * wordsPerRow, words, writeRow * wordsPerRow, wordsPerRow);
+        rowFills[writeRow] = rowFills[readRow];
+        rowHashes[writeRow] = rowHashes[readRow];
+        if (colors != null) {
+          colors[writeRow] = colors[readRow];
+        }
+        writeRow--;
+      }
+    }
+
+    for (int i = 0; i < removedCount; i++) {
+      int row = stackTop + i;
+      if (colors != null) {
+        Arrays.fill(removedRowColors[i], null);
+        colors[row] = removedRowColors[i];
+        removedRowColors[i] = null;
+      }
+      Arrays.fill(words, row * wordsPerRow, (row + 1) * wordsPerRow, 0);
+      rowFills[row] = 0;
+      rowHashes[row] = 0;
+    }
+
+    for (int row = stackTop + removedCount; row <= bottomRow; row++) {
+      zobristHash ^= rowKey(row, rowHashes[row]); // Rehash the rows which moved
+    }
+    markChanged(stackTop, bottomRow);
+
+    // Removed rows were full, so every column's surface is at or above the lowest of them
+    for (int column = 0; column < columns; column++) {
+      int surface = columnSurfaces[column];
+      int removedBelowSurface = surface < topRow ? removedCount : Integer.bitCount(removedRows >>> (surface - topRow + 1));
+      boolean surfaceRemoved = surface >= topRow && (removedRows & (1 << (surface - topRow))) != 0;
+
+      columnSurfaces[column] = surfaceRemoved
+        ? findSurface(column, surface + 1 + removedBelowSurface)
+        : surface + removedBelowSurface;
+    }
+
+    return removedCount;
+  }
+
+  /**
+   * Overwrites this board with the contents of the given board, which must have the same dimensions. Colors are only
+   * copied if both boards track them.
+   */
+  void copyFrom(Board source) {
+    if (source.rows != rows || source.columns != columns) {
+      throw new IllegalArgumentException("Cannot copy a " + source.rows + "x" + source.columns + " board into a " + rows + "x" + columns + " board");
+    }
+
+    System.arraycopy(source.words, 0, words, 0, words.length);
+    System.arraycopy(source.rowFills, 0, rowFills, 0, rows);
+    System.arraycopy(source.rowHashes, 0, rowHashes, 0, rows);
+    System.arraycopy(source.columnSurfaces, 0, columnSurfaces, 0, columns);
+    zobristHash = source.zobristHash;
+    markChanged(0, rows - 1);
+
+    if (colors != null) {
+      for (int row = 0; row < rows; row++) {
+        if (source.colors == null) {
+          Arrays.fill(colors[row], null);
+        } else {
+          System.arraycopy(source.colors[row], 0, colors[row], 0, columns);
+        }
+      }
+    }
+  }
+
+  void clear() {
+    Arrays.fill(words, 0);
+    Arrays.fill(rowFills, 0);
+    Arrays.fill(rowHashes, 0);
+    Arrays.fill(columnSurfaces, rows);
+    zobristHash = 0;
+    markChanged(0, rows - 1);
+    if (colors != null) {
+      for (Color[] rowColors : colors) {
+        Arrays.fill(rowColors, null);
+      }
+    }
+  }
+
+  private void markChanged(int fromRow, int toRow) {
+    if (colors == null) {
+      return; // Occupancy-only copies are never rendered
+    }
+
+    synchronized (this) {
+      if (changedBottomRow < changedTopRow) {
+        changedTopRow = fromRow;
+        changedBottomRow = toRow;
+      } else {
+        changedTopRow = Math.min(changedTopRow, fromRow);
+        changedBottomRow = Math.max(changedBottomRow, toRow);
+      }
+    }
+  }
+
+  /**
+   * @return The top and bottom rows (inclusive) of the range of rows which changed since the last call, with the top
+   *         greater than the bottom if nothing changed
+   */
+  synchronized int[] takeChangedRows() {
+    int[] changedRows = {changedTopRow, changedBottomRow};
+    changedTopRow = rows;
+    changedBottomRow = -1;
+    return changedRows;
+  }
+
+}
@@ -5,7 +5,7 @@ import java.util.Objects;
 
 public class ColoredSquare {
 
-  private Color color;
+  private final Color color;
   private final int row, column;
 
   public ColoredSquare(int row, int column) {
@@ -22,10 +22,6 @@ public class ColoredSquare {
     return color;
   }
 
-  void clearColor() {
-    this.color = null;
-  }
-
   public int getRow() {
     return row;
   }
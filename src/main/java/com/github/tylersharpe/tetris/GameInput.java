@@ -0,0 +1,18 @@
+package com.github.tylersharpe.tetris;
+
+/**
+ * Every action a player can take on the active block. Applied through {@link TetrisGame#apply(GameInput)}, so human
+ * players, AI players and replays all drive the game through the same entry point.
+ */
+public enum GameInput {
+  MOVE_LEFT,
+  MOVE_RIGHT,
+  MOVE_DOWN,
+  SUPER_SLIDE_LEFT,
+  SUPER_SLIDE_RIGHT,
+  ROTATE_CLOCKWISE,
+  ROTATE_COUNTER_CLOCKWISE,
+  DROP,
+  HOLD,
+  RELEASE_HOLD
+}
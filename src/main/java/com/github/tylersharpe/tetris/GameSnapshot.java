@@ -0,0 +1,96 @@
+package com.github.tylersharpe.tetris;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Immutable copy of everything which decides how a {@link TetrisGame} plays out from a given moment: its settings, board,
+ * active and held blocks, upcoming block sequence, score and clocks. Restoring a snapshot puts the game back exactly where
+ * it was, so that the same inputs from there on play out identically.
+ */
+public final class GameSnapshot {
+
+  // Settings
+  final Difficulty difficulty;
+  final boolean timeAttack;
+  final Randomizer randomizer;
+  final int[] spawnWeights; // Indexed by block type ordinal; -1 = disabled
+
+  // Block sequence, which is regenerated from the seed on restore
+  final long seed;
+  final int blocksGenerated;
+
+  final Board board;
+  final Block activeBlock, holdBlock; // Either may be null
+
+  final int score, level, totalLinesCleared, blocksPlaced;
+  final int gameTime, currentLevelTime;
+  final boolean gameWon, running;
+
+  // Simulated clock
+  final int fallDelay;
+  final long fallDelayElapsed, secondElapsed, elapsedMillis;
+
+  GameSnapshot(Difficulty difficulty, boolean timeAttack, Randomizer randomizer, int[] spawnWeights, long seed,
+               int blocksGenerated, Board board, Block activeBlock, Block holdBlock, int score, int level,
+               int totalLinesCleared, int blocksPlaced, int gameTime, int currentLevelTime, boolean gameWon,
+               boolean running, int fallDelay, long fallDelayElapsed, long secondElapsed, long elapsedMillis) {
+    this.difficulty = difficulty;
+    this.timeAttack = timeAttack;
+    this.randomizer = randomizer;
+    this.spawnWeights = spawnWeights;
+    this.seed = seed;
+    this.blocksGenerated = blocksGenerated;
+    this.board = board;
+    this.activeBlock = activeBlock;
+    this.holdBlock = holdBlock;
+    this.score = score;
+    this.level = level;
+    this.totalLinesCleared = totalLinesCleared;
+    this.blocksPlaced = blocksPlaced;
+    this.gameTime = gameTime;
+    this.currentLevelTime = currentLevelTime;
+    this.gameWon = gameWon;
+    this.running = running;
+    this.fallDelay = fallDelay;
+    this.fallDelayElapsed = fallDelayElapsed;
+    this.secondElapsed = secondElapsed;
+    this.elapsedMillis = elapsedMillis;
+  }
+
+  public int getRows() {
+    return board.getRows();
+  }
+
+  public int getColumns() {
+    return board.getColumns();
+  }
+
+  public Difficulty getDifficulty() {
+    return difficulty;
+  }
+
+  public boolean isTimeAttack() {
+    return timeAttack;
+  }
+
+  /** @return Simulated milliseconds the game had been running for when the snapshot was taken */
+  public long getElapsedMillis() {
+    return elapsedMillis;
+  }
+
+  public int getScore() {
+    return score;
+  }
+
+  /** Writes this snapshot in its compact binary format. Doesn't close the stream */
+  public void writeTo(OutputStream outputStream) throws IOException {
+    GameSnapshotFormat.write(this, outputStream);
+  }
+
+  public static GameSnapshot readFrom(InputStream inputStream) throws IOException {
+    return GameSnapshotFormat.read(inputStream);
+  }
+
+}
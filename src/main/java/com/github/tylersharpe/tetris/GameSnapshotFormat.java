@@ -0,0 +1,234 @@
+package com.github.tylersharpe.tetris;
+
+import java.awt.*;
+import java.io.*;
+import java.util.Arrays;
+
+/**
+ * Binary encoding of a {@link GameSnapshot}. The board is stored as one bit per square, followed by a four bit color
+ * index for each occupied square, so a typical mid-game board takes well under 100 bytes. The block sequence isn't
+ * stored at all: it's regenerated from the seed and the number of blocks generated.
+ *
+ * <pre>
+ * magic "TSAV", version byte
+ * difficulty, randomizer, flags byte (bit 0 = time attack, bit 1 = won, bit 2 = running)
+ * enabled type count, then (type ordinal, spawn weight) per enabled type
+ * seed (8 bytes), blocks generated
+ * rows, columns, occupancy bits (row by row, least significant bit first), color nibbles of occupied squares
+ * active block, hold block: presence byte, then type, (orientation | held flag &lt;&lt; 2) byte, signed row, signed column
+ * score, level, lines cleared, blocks placed, game time, current level time
+ * fall delay, fall delay elapsed, second elapsed, elapsed millis
+ * </pre>
+ *
+ * All numbers other than the seed are varints.
+ */
+final class GameSnapshotFormat {
+
+  private static final int MAGIC = 0x54534156; // "TSAV"
+  private static final int VERSION = 1;
+
+  private static final int TIME_ATTACK_FLAG = 1;
+  private static final int WON_FLAG = 1 << 1;
+  private static final int RUNNING_FLAG = 1 << 2;
+
+  private static final int HOLD_BLOCK_FLAG = 1 << 2;
+  private static final int ORIENTATION_MASK = 0b11;
+
+  private static final BlockType[] BLOCK_TYPES = BlockType.values();
+  private static final int UNKNOWN_COLOR = 0xF; // Squares whose color isn't any block type's
+  private static final Color UNKNOWN_COLOR_REPLACEMENT = Color.GRAY;
+
+  static {
+    if (BLOCK_TYPES.length > UNKNOWN_COLOR) {
+      throw new ExceptionInInitializerError("Block type colors no longer fit in 4 bits");
+    }
+  }
+
+  private GameSnapshotFormat() {
+  }
+
+  static void write(GameSnapshot snapshot, OutputStream outputStream) throws IOException {
+    var out = new DataOutputStream(new BufferedOutputStream(outputStream));
+
+    out.writeInt(MAGIC);
+    out.writeByte(VERSION);
+
+    Varints.writeUnsigned(out, snapshot.difficulty.ordinal());
+    Varints.writeUnsigned(out, snapshot.randomizer.ordinal());
+    out.writeByte((snapshot.timeAttack ? TIME_ATTACK_FLAG : 0) | (snapshot.gameWon ? WON_FLAG : 0) | (snapshot.running ? RUNNING_FLAG : 0));
+
+    int enabledTypes = 0;
+    for (int spawnWeight : snapshot.spawnWeights) {
+      if (spawnWeight >= 0) {
+        enabledTypes++;
+      }
+    }
+    Varints.writeUnsigned(out, enabledTypes);
+    for (int ordinal = 0; ordinal < snapshot.spawnWeights.length; ordinal++) {
+      if (snapshot.spawnWeights[ordinal] >= 0) {
+        Varints.writeUnsigned(out, ordinal);
+        Varints.writeUnsigned(out, snapshot.spawnWeights[ordinal]);
+      }
+    }
+
+    out.writeLong(snapshot.seed);
+    Varints.writeUnsigned(out, snapshot.blocksGenerated);
+
+    writeBoard(out, snapshot.board);
+    writeBlock(out, snapshot.activeBlock);
+    writeBlock(out, snapshot.holdBlock);
+
+    Varints.writeUnsigned(out, snapshot.score);
+    Varints.writeUnsigned(out, snapshot.level);
+    Varints.writeUnsigned(out, snapshot.totalLinesCleared);
+    Varints.writeUnsigned(out, snapshot.blocksPlaced);
+    Varints.writeUnsigned(out, snapshot.gameTime);
+    Varints.writeUnsigned(out, snapshot.currentLevelTime);
+
+    Varints.writeUnsigned(out, snapshot.fallDelay);
+    Varints.writeUnsigned(out, snapshot.fallDelayElapsed);
+    Varints.writeUnsigned(out, snapshot.secondElapsed);
+    Varints.writeUnsigned(out, snapshot.elapsedMillis);
+
+    out.flush();
+  }
+
+  static GameSnapshot read(InputStream inputStream) throws IOException {
+    var in = new DataInputStream(new BufferedInputStream(inputStream));
+
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not a saved game file");
+    }
+    int version = in.readUnsignedByte();
+    if (version != VERSION) {
+      throw new IOException("Unsupported saved game version " + version);
+    }
+
+    Difficulty difficulty = Varints.readEnum(in, Difficulty.values());
+    Randomizer randomizer = Varints.readEnum(in, Randomizer.values());
+    int flags = in.readUnsignedByte();
+
+    int[] spawnWeights = new int[BLOCK_TYPES.length];
+    Arrays.fill(spawnWeights, -1);
+    int enabledTypes = (int) Varints.readUnsigned(in);
+    for (int i = 0; i < enabledTypes; i++) {
+      BlockType type = Varints.readEnum(in, BLOCK_TYPES);
+      spawnWeights[type.ordinal()] = (int) Varints.readUnsigned(in);
+    }
+
+    long seed = in.readLong();
+    int blocksGenerated = (int) Varints.readUnsigned(in);
+
+    Board board = readBoard(in);
+    Block activeBlock = readBlock(in);
+    Block holdBlock = readBlock(in);
+
+    int score = (int) Varints.readUnsigned(in);
+    int level = (int) Varints.readUnsigned(in);
+    int totalLinesCleared = (int) Varints.readUnsigned(in);
+    int blocksPlaced = (int) Varints.readUnsigned(in);
+    int gameTime = (int) Varints.readUnsigned(in);
+    int currentLevelTime = (int) Varints.readUnsigned(in);
+
+    int fallDelay = (int) Varints.readUnsigned(in);
+    long fallDelayElapsed = Varints.readUnsigned(in);
+    long secondElapsed = Varints.readUnsigned(in);
+    long elapsedMillis = Varints.readUnsigned(in);
+
+    return new GameSnapshot(
+      difficulty, (flags & TIME_ATTACK_FLAG) != 0, randomizer, spawnWeights, seed, blocksGenerated, board, activeBlock,
+      holdBlock, score, level, totalLinesCleared, blocksPlaced, gameTime, currentLevelTime, (flags & WON_FLAG) != 0,
+      (flags & RUNNING_FLAG) != 0, fallDelay, fallDelayElapsed, secondElapsed, elapsedMillis
+    );
+  }
+
+  private static void writeBoard(DataOutputStream out, Board board) throws IOException {
+    int rows = board.getRows(), columns = board.getColumns();
+    Varints.writeUnsigned(out, rows);
+    Varints.writeUnsigned(out, columns);
+
+    int squares = rows * columns;
+    byte[] occupancy = new byte[(squares + 7) / 8];
+    byte[] colors = new byte[(squares + 1) / 2];
+    int occupied = 0;
+
+    for (int row = 0; row < rows; row++) {
+      if (board.isRowEmpty(row)) {
+        continue;
+      }
+      for (int column = 0; column < columns; column++) {
+        if (board.isOccupied(row, column)) {
+          int square = row * columns + column;
+          occupancy[square >>> 3] |= 1 << (square & 7);
+          colors[occupied >>> 1] |= colorIndex(board.getColor(row, column)) << ((occupied & 1) * 4);
+          occupied++;
+        }
+      }
+    }
+
+    out.write(occupancy);
+    out.write(colors, 0, (occupied + 1) / 2);
+  }
+
+  private static Board readBoard(DataInputStream in) throws IOException {
+    int rows = (int) Varints.readUnsigned(in);
+    int columns = (int) Varints.readUnsigned(in);
+    if (rows < TetrisGame.MIN_ROWS || rows > TetrisGame.MAX_ROWS || columns < TetrisGame.MIN_COLUMNS || columns > TetrisGame.MAX_COLUMNS) {
+      throw new IOException("Malformed board dimensions " + rows + "x" + columns);
+    }
+
+    byte[] occupancy = new byte[(rows * columns + 7) / 8];
+    in.readFully(occupancy);
+
+    int occupied = 0;
+    for (byte bits : occupancy) {
+      occupied += Integer.bitCount(bits & 0xFF);
+    }
+    byte[] colors = new byte[(occupied + 1) / 2];
+    in.readFully(colors);
+
+    Board board = new Board(rows, columns);
+    int colorIndex = 0;
+    for (int square = 0; square < rows * columns; square++) {
+      if ((occupancy[square >>> 3] & (1 << (square & 7))) != 0) {
+        int color = (colors[colorIndex >>> 1] >>> ((colorIndex & 1) * 4)) & 0xF;
+        board.setColor(square / columns, square % columns, color == UNKNOWN_COLOR ? UNKNOWN_COLOR_REPLACEMENT : BLOCK_TYPES[color].getColor());
+        colorIndex++;
+      }
+    }
+    return board;
+  }
+
+  /** @return Ordinal of the first block type with the given color */
+  private static int colorIndex(Color color) {
+    for (BlockType type : BLOCK_TYPES) {
+      if (type.getColor().equals(color)) {
+        return type.ordinal();
+      }
+    }
+    return UNKNOWN_COLOR;
+  }
+
+  private static void writeBlock(DataOutputStream out, Block block) throws IOException {
+    out.writeBoolean(block != null);
+    if (block != null) {
+      Varints.writeUnsigned(out, block.getType().ordinal());
+      out.writeByte(block.getOrientation() | (block.isHoldBlock() ? HOLD_BLOCK_FLAG : 0));
+      Varints.writeSigned(out, block.getRow());
+      Varints.writeSigned(out, block.getColumn());
+    }
+  }
+
+  private static Block readBlock(DataInputStream in) throws IOException {
+    if (!in.readBoolean()) {
+      return null;
+    }
+
+    BlockType type = Varints.readEnum(in, BLOCK_TYPES);
+    int flags = in.readUnsignedByte();
+    int row = (int) Varints.readSigned(in);
+    int column = (int) Varints.readSigned(in);
+    return new Block(type, flags & ORIENTATION_MASK, row, column, (flags & HOLD_BLOCK_FLAG) != 0);
+  }
+
+}
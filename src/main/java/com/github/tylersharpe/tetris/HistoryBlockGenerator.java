@@ -0,0 +1,50 @@
+package com.github.tylersharpe.tetris;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Weighted draws which are re-rolled, a bounded number of times, while they repeat one of the last few blocks dealt.
+ * Keeps the spawn weights' overall feel while making long droughts and floods of one type much less likely.
+ */
+final class HistoryBlockGenerator implements BlockGenerator {
+
+  private static final int HISTORY_SIZE = 4;
+  private static final int MAX_ROLLS = 6;
+
+  private final WeightedBlockGenerator weightedGenerator;
+  private final int[] history = new int[HISTORY_SIZE]; // Ring buffer of recently dealt ordinals; -1 = empty
+  private int historyHead;
+
+  HistoryBlockGenerator(int[] spawnWeights) {
+    this.weightedGenerator = new WeightedBlockGenerator(spawnWeights);
+    Arrays.fill(history, -1);
+  }
+
+  @Override
+  public int next(SplittableRandom random) {
+    int candidate = weightedGenerator.next(random);
+    for (int roll = 1; roll < MAX_ROLLS && isInHistory(candidate); roll++) {
+      candidate = weightedGenerator.next(random);
+    }
+
+    history[historyHead] = candidate;
+    historyHead = (historyHead + 1) % HISTORY_SIZE;
+    return candidate;
+  }
+
+  @Override
+  public void onSpawnWeightsChanged() {
+    weightedGenerator.onSpawnWeightsChanged();
+  }
+
+  private boolean isInHistory(int ordinal) {
+    for (int recent : history) {
+      if (recent == ordinal) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
@@ -4,8 +4,13 @@ import com.github.tylersharpe.tetris.swing.MasterTetrisFrame;
 
 public class Main {
 
+  /** Optionally takes the number of rows and columns of the board, which default to the standard size */
   public static void main(String[] args) {
-    new MasterTetrisFrame().setVisible(true);
+    if (args.length >= 2) {
+      new MasterTetrisFrame(Integer.parseInt(args[0]), Integer.parseInt(args[1])).setVisible(true);
+    } else {
+      new MasterTetrisFrame().setVisible(true);
+    }
   }
 
 }
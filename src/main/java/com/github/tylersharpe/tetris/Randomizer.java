@@ -0,0 +1,39 @@
+package com.github.tylersharpe.tetris;
+
+/**
+ * Strategies for choosing the sequence of blocks dealt by a {@link BlockConveyor}
+ */
+public enum Randomizer {
+
+  /** Every block is drawn independently according to the difficulty's spawn rates */
+  WEIGHTED {
+    @Override
+    BlockGenerator createGenerator(int[] spawnWeights) {
+      return new WeightedBlockGenerator(spawnWeights);
+    }
+  },
+
+  /** Blocks are dealt from shuffled bags containing one of each enabled type */
+  BAG {
+    @Override
+    BlockGenerator createGenerator(int[] spawnWeights) {
+      return new BagBlockGenerator(spawnWeights);
+    }
+  },
+
+  /** Weighted draws which avoid repeating recently dealt types */
+  HISTORY {
+    @Override
+    BlockGenerator createGenerator(int[] spawnWeights) {
+      return new HistoryBlockGenerator(spawnWeights);
+    }
+  };
+
+  abstract BlockGenerator createGenerator(int[] spawnWeights);
+
+  @Override
+  public String toString() {
+    return Utility.capitalize(name());
+  }
+
+}
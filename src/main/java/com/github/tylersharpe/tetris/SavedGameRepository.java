@@ -0,0 +1,52 @@
+package com.github.tylersharpe.tetris;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Keeps a single paused game on disk so that it can be picked up again after the application is closed
+ */
+public class SavedGameRepository {
+
+  private static final Path SAVE_PATH = Paths.get(System.getProperty("user.home"), ".config", "tetris-saved-game");
+
+  private final Path savePath;
+
+  public SavedGameRepository() {
+    this(SAVE_PATH);
+  }
+
+  SavedGameRepository(Path savePath) {
+    this.savePath = savePath;
+  }
+
+  /** Replaces any previously saved game. Written to a temporary file first, so a crash never leaves a partial save */
+  public void save(GameSnapshot snapshot) throws IOException {
+    Files.createDirectories(savePath.getParent());
+
+    Path temporaryPath = savePath.resolveSibling(savePath.getFileName() + ".tmp");
+    try (var outputStream = Files.newOutputStream(temporaryPath)) {
+      snapshot.writeTo(outputStream);
+    }
+    Files.move(temporaryPath, savePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  public Optional<GameSnapshot> load() throws IOException {
+    if (!Files.exists(savePath)) {
+      return Optional.empty();
+    }
+
+    try (var inputStream = Files.newInputStream(savePath)) {
+      return Optional.of(GameSnapshot.readFrom(inputStream));
+    }
+  }
+
+  public void delete() throws IOException {
+    Files.deleteIfExists(savePath);
+  }
+
+}
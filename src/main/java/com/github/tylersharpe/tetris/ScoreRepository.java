@@ -27,6 +27,16 @@ public class ScoreRepository {
     }
   }
 
+  private final Path savePath;
+
+  public ScoreRepository() {
+    this(SAVE_PATH);
+  }
+
+  ScoreRepository(Path savePath) {
+    this.savePath = savePath;
+  }
+
   public static boolean isLeaderBoardRank(int rank) {
     return rank <= LEADER_BOARD_RANK_THRESHOLD;
   }
@@ -55,18 +65,18 @@ public class ScoreRepository {
     List<Score> allScores = new ArrayList<>(readScoresFromDisk());
     allScores.add(score);
 
-    try (var objectOutputStream = new ObjectOutputStream(new FileOutputStream(SAVE_PATH.toFile()))) {
+    try (var objectOutputStream = new ObjectOutputStream(new FileOutputStream(savePath.toFile()))) {
       objectOutputStream.writeObject(allScores);
     }
   }
 
   @SuppressWarnings("unchecked")
   private List<Score> readScoresFromDisk() throws IOException {
-    if (!Files.exists(SAVE_PATH)) {
+    if (!Files.exists(savePath)) {
       return Collections.emptyList();
     }
 
-    try (var scoresInputStream = new ObjectInputStream(new FileInputStream(SAVE_PATH.toFile()))) {
+    try (var scoresInputStream = new ObjectInputStream(new FileInputStream(savePath.toFile()))) {
       return (List<Score>) scoresInputStream.readObject();
     } catch (ClassCastException | ClassNotFoundException e) {
       throw new RuntimeException("Malformed high scores file", e);
@@ -2,54 +2,77 @@ package com.github.tylersharpe.tetris;
 
 import com.github.tylersharpe.tetris.event.Broker;
 import com.github.tylersharpe.tetris.event.TetrisEvent;
+import com.github.tylersharpe.tetris.jfr.GravityStepEvent;
+import com.github.tylersharpe.tetris.jfr.LineClearEvent;
+import com.github.tylersharpe.tetris.jfr.SpawnEvent;
+import com.github.tylersharpe.tetris.metrics.GameLoopMetrics;
 
-import javax.swing.Timer;
 import java.awt.*;
 import java.util.List;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class TetrisGame extends Broker {
 
   public static final int MAX_LEVEL = 10;
-  public static final int VERTICAL_DIMENSION = 23; // includes 3 invisible rows at top
-  public static final int HORIZONTAL_DIMENSION = 10;
+  public static final int VERTICAL_DIMENSION = 23; // Standard board height; includes 3 invisible rows at top
+  public static final int HORIZONTAL_DIMENSION = 10; // Standard board width
+  public static final int HIDDEN_ROWS = 3;
+  public static final int MIN_ROWS = HIDDEN_ROWS + 4, MIN_COLUMNS = 4; // Room for any block to spawn
+  public static final int MAX_ROWS = 10_000, MAX_COLUMNS = 1_000;
+  private static final int MILLIS_PER_SECOND = 1000;
 
   private Block activeBlock;
   private Block holdBlock;
   private final BlockConveyor conveyor;
-  private final LinkedList<Color[]> persistedBlocks; // Persisted colors for previous blocks; doesn't include active block squares
+  private final int rows, columns;
+  private final Board board; // Persisted squares for previous blocks; doesn't include active block squares
   private Difficulty difficulty;
   private int totalLinesCleared;
+  private int blocksPlaced;
   private int score;
   private int level;
   private int gameTime;
   private boolean ghostSquaresEnabled = true;
   private boolean timeAttack;
   private int currentLevelTime;
-  private final Timer fallTimer;
-  private final Timer gameTimer;
   private boolean isGameWon;
+  private long seed;
+
+  // Simulated clock state. The game only advances through tick(), so it can be driven in real time or as fast as possible
+  private boolean running;
+  private int fallDelay;
+  private long fallDelayElapsed;
+  private long secondElapsed;
+  private long elapsedMillis;
+
+  private final GameLoopMetrics loopMetrics = new GameLoopMetrics();
 
   public TetrisGame() {
-    this.conveyor = new BlockConveyor();
+    this(VERTICAL_DIMENSION, HORIZONTAL_DIMENSION);
+  }
 
-    this.persistedBlocks = new LinkedList<>();
-    for (int i = 1; i <= VERTICAL_DIMENSION; i++) {
-      persistedBlocks.add(new Color[HORIZONTAL_DIMENSION]);
+  /** @param rows Height of the board, including the {@link #HIDDEN_ROWS} invisible rows at the top */
+  public TetrisGame(int rows, int columns) {
+    if (rows < MIN_ROWS || rows > MAX_ROWS || columns < MIN_COLUMNS || columns > MAX_COLUMNS) {
+      throw new IllegalArgumentException(
+        "Board must have between " + MIN_ROWS + " and " + MAX_ROWS + " rows and between " + MIN_COLUMNS + " and " + MAX_COLUMNS + " columns"
+      );
     }
 
-    this.fallTimer = new Timer(0, e -> tryMoveActiveBlockDown());
+    this.conveyor = new BlockConveyor();
+    this.rows = rows;
+    this.columns = columns;
+    this.board = new Board(rows, columns);
+  }
 
-    this.gameTimer = new Timer(1000, e -> {
-      setGameTime(gameTime + 1);
-      currentLevelTime++;
+  /** @return Height of the board, including the hidden rows */
+  public int getRows() {
+    return rows;
+  }
 
-      if (timeAttack && currentLevelTime >= difficulty.getTimeAttackSecondsPerLevel()) {
-        publish(TetrisEvent.TIME_ATTACK_FAIL);
-        ((Timer) e.getSource()).stop();
-        fallTimer.stop();
-      }
-    });
+  public int getColumns() {
+    return columns;
   }
 
   public Block getActiveBlock() {
@@ -68,16 +91,164 @@ public class TetrisGame extends Broker {
     setHoldBlock(null);
   }
 
+  /**
+   * Moves the active block into the hold slot and spawns the next block in its place. A block which has already been
+   * held once can't be held again.
+   *
+   * @return Whether the block was held
+   */
+  public boolean holdActiveBlock() {
+    if (holdBlock != null || activeBlock.isHoldBlock()) {
+      return false;
+    }
+
+    activeBlock.tagAsHoldBlock();
+    setHoldBlock(activeBlock);
+    spawn(conveyor.next());
+    return true;
+  }
+
+  /**
+   * Spawns the held block in place of the active block, emptying the hold slot.
+   *
+   * @return Whether there was a held block to release
+   */
+  public boolean releaseHoldBlock() {
+    if (holdBlock == null) {
+      return false;
+    }
+
+    spawn(holdBlock);
+    clearHoldBlock();
+    return true;
+  }
+
+  /**
+   * Applies a single player input to the active block.
+   *
+   * @return Whether the input had any effect
+   */
+  public boolean apply(GameInput input) {
+    return switch (input) {
+      case MOVE_LEFT -> moveActiveBlockLeft();
+      case MOVE_RIGHT -> moveActiveBlockRight();
+      case MOVE_DOWN -> moveActiveBlockDown();
+      case SUPER_SLIDE_LEFT -> superSlideActiveBlockLeft();
+      case SUPER_SLIDE_RIGHT -> superSlideActiveBlockRight();
+      case ROTATE_CLOCKWISE -> rotateActiveBlock(Rotation.CLOCKWISE);
+      case ROTATE_COUNTER_CLOCKWISE -> rotateActiveBlock(Rotation.COUNTER_CLOCKWISE);
+      case DROP -> {
+        dropCurrentBlock();
+        tryMoveActiveBlockDown();
+        yield true;
+      }
+      case HOLD -> holdActiveBlock();
+      case RELEASE_HOLD -> releaseHoldBlock();
+    };
+  }
+
+  /**
+   * @return Zobrist hash of the board, the active block and the hold slot. Positions which would play out the same
+   *         under the same inputs and upcoming blocks have the same hash.
+   */
+  public long getZobristHash() {
+    long hash = board.getZobristHash();
+    if (activeBlock != null) {
+      hash ^= Zobrist.activeBlockKey(activeBlock.getType(), activeBlock.getOrientation(), activeBlock.getRow(), activeBlock.getColumn());
+    }
+    if (holdBlock != null) {
+      hash ^= Zobrist.holdKey(holdBlock.getType(), holdBlock.getOrientation());
+    }
+    return hash;
+  }
+
+  /** @return A copy of the persisted squares, which doesn't include the active block */
+  public Board copyBoard() {
+    return board.copy();
+  }
+
   public void setGhostSquaresEnabled(boolean ghostSquaresEnabled) {
     this.ghostSquaresEnabled = ghostSquaresEnabled;
   }
 
-  public Timer getFallTimer() {
-    return fallTimer;
+  public boolean isRunning() {
+    return running;
+  }
+
+  /** Stops the simulated clock; ticks have no effect until {@link #resume()} is called */
+  public void pause() {
+    this.running = false;
+  }
+
+  public void resume() {
+    this.running = true;
+  }
+
+  /** @return Current delay in milliseconds between each gravity step of the active block */
+  public int getFallDelay() {
+    return fallDelay;
+  }
+
+  /** @return Total simulated milliseconds this game has been running for */
+  public long getElapsedMillis() {
+    return elapsedMillis;
   }
 
-  public Timer getGameTimer() {
-    return gameTimer;
+  /**
+   * @return Simulated milliseconds until the next gravity step or game clock second, whichever is sooner. Ticking less
+   *         than this changes nothing but the clock, though an input may bring it forward by changing the level
+   */
+  public long getMillisUntilNextStep() {
+    return Math.min(Math.max(0, fallDelay - fallDelayElapsed), MILLIS_PER_SECOND - secondElapsed);
+  }
+
+  /**
+   * Advances the simulated clock by the given number of milliseconds, applying every gravity step and game clock second
+   * that falls within that window in order. Has no effect while the game is paused or over.
+   *
+   * @return Whether any gravity step or game clock second was applied, rather than just time passing
+   */
+  public boolean tick(long millis) {
+    long remaining = millis;
+    boolean stepped = false;
+
+    while (running && remaining > 0) {
+      long untilFall = Math.max(0, fallDelay - fallDelayElapsed);
+      long untilSecond = MILLIS_PER_SECOND - secondElapsed;
+      long step = Math.min(remaining, Math.min(untilFall, untilSecond));
+
+      fallDelayElapsed += step;
+      secondElapsed += step;
+      elapsedMillis += step;
+      remaining -= step;
+
+      if (secondElapsed >= MILLIS_PER_SECOND) {
+        secondElapsed = 0;
+        advanceGameClock();
+        stepped = true;
+      }
+
+      if (running && fallDelayElapsed >= fallDelay) {
+        fallDelayElapsed = 0;
+        if (loopMetrics.isEnabled()) {
+          loopMetrics.recordMillis(loopMetrics.getGravityLateness(), remaining); // The rest of the tick came after it was due
+        }
+        tryMoveActiveBlockDown();
+        stepped = true;
+      }
+    }
+    return stepped;
+  }
+
+  private void advanceGameClock() {
+    setGameTime(gameTime + 1);
+    currentLevelTime++;
+    publish(TetrisEvent.TIME_CHANGED, gameTime);
+
+    if (timeAttack && currentLevelTime >= difficulty.getTimeAttackSecondsPerLevel()) {
+      pause();
+      publish(TetrisEvent.TIME_ATTACK_FAIL);
+    }
   }
 
   public int getScore() {
@@ -99,6 +270,20 @@ public class TetrisGame extends Broker {
     gameTime = time;
   }
 
+  public boolean isGameWon() {
+    return isGameWon;
+  }
+
+  /** @return Seed of the random generator behind the current game's block sequence */
+  public long getSeed() {
+    return seed;
+  }
+
+  /** @return Latency metrics of the loop driving this game, which its driver and renderer also record into */
+  public GameLoopMetrics getLoopMetrics() {
+    return loopMetrics;
+  }
+
   public BlockConveyor getConveyor() {
     return conveyor;
   }
@@ -110,7 +295,7 @@ public class TetrisGame extends Broker {
   public void setDifficulty(Difficulty difficulty) {
     this.difficulty = difficulty;
     this.conveyor.setDifficulty(difficulty);
-    this.fallTimer.setDelay(difficulty.getInitialTimerDelay());
+    this.fallDelay = difficulty.getInitialTimerDelay();
   }
 
   public boolean isTimeAttack() {
@@ -134,15 +319,14 @@ public class TetrisGame extends Broker {
 
     if (newLevel > MAX_LEVEL) {
       this.isGameWon = true;
-      fallTimer.stop();
-      gameTimer.stop();
+      pause();
       clearActiveBlock(); // Needed so that this block's squares don't get re-painted during victory clear animation
       publish(TetrisEvent.GAME_WON, level);
     } else {
       int initialDelay = difficulty.getInitialTimerDelay();
       int totalSpeedup = (level - 1) * Difficulty.TIMER_SPEEDUP;
       int newDelay = initialDelay - totalSpeedup;
-      fallTimer.setDelay(newDelay);
+      this.fallDelay = newDelay;
       this.currentLevelTime = 0;
       publish(TetrisEvent.LEVEL_CHANGED, newLevel);
     }
@@ -153,18 +337,22 @@ public class TetrisGame extends Broker {
   }
 
   public boolean isOpenAndInBounds(int row, int column) {
-    boolean isInBounds = row >= 0 && row < VERTICAL_DIMENSION && column >= 0 && column < HORIZONTAL_DIMENSION;
-    return isInBounds && persistedBlocks.get(row)[column] == null;
+    return board.isOpenAndInBounds(row, column);
   }
 
   public void setColor(int row, int col, Color color) {
-    persistedBlocks.get(row)[col] = color;
+    board.setColor(row, col, color);
   }
 
   public int getTotalLinesCleared() {
     return totalLinesCleared;
   }
 
+  /** @return Number of blocks which have landed and been persisted to the board this game */
+  public int getBlocksPlaced() {
+    return blocksPlaced;
+  }
+
   public int getCurrentLevelLinesCleared() {
     int lastLevelThreshold = level == 0 ? 0 : difficulty.getLinesPerLevel() * (level - 1);
     return totalLinesCleared - lastLevelThreshold;
@@ -186,34 +374,30 @@ public class TetrisGame extends Broker {
     this.activeBlock = null;
   }
 
-  @SuppressWarnings("StatementWithEmptyBody")
   public void dropCurrentBlock() {
-    while (moveActiveBlockDown()) {
-      // Move method returns boolean to control loop
-    }
+    activeBlock.move(getDropDistance(activeBlock), 0);
   }
 
-  @SuppressWarnings("StatementWithEmptyBody")
-  public void superSlideActiveBlockLeft() {
+  /** @return Whether the block moved at all */
+  public boolean superSlideActiveBlockLeft() {
+    boolean moved = false;
     while (moveActiveBlockLeft()) {
-      // Move method returns boolean to control loop
+      moved = true;
     }
+    return moved;
   }
 
-  @SuppressWarnings("StatementWithEmptyBody")
-  public void superSlideActiveBlockRight() {
+  /** @return Whether the block moved at all */
+  public boolean superSlideActiveBlockRight() {
+    boolean moved = false;
     while (moveActiveBlockRight()) {
-      // Move method returns boolean to control loop
+      moved = true;
     }
+    return moved;
   }
 
   private boolean moveBlock(Block block, int rowMove, int columnMove) {
-    boolean canMoveBeMade = block.getOccupiedSquares()
-            .stream()
-            .map(currentSquare -> new ColoredSquare(currentSquare.getRow() + rowMove, currentSquare.getColumn() + columnMove))
-            .allMatch(squareAfterMove -> isOpenAndInBounds(squareAfterMove.getRow(), squareAfterMove.getColumn()));
-
-    if (canMoveBeMade) {
+    if (board.fits(block.getShape(), block.getRow() + rowMove, block.getColumn() + columnMove)) {
       block.move(rowMove, columnMove);
       return true;
     } else {
@@ -222,13 +406,9 @@ public class TetrisGame extends Broker {
   }
 
   public boolean rotateActiveBlock(Rotation rotation) {
-    Collection<ColoredSquare> squaresAfterRotation = activeBlock.copy().rotate(rotation).getOccupiedSquares();
+    BlockShape rotatedShape = activeBlock.getType().getShape(activeBlock.getRotatedOrientation(rotation));
 
-    boolean areRotatedSquaresLegal = squaresAfterRotation
-            .stream()
-            .allMatch(squareAfterRotation -> isOpenAndInBounds(squareAfterRotation.getRow(), squareAfterRotation.getColumn()));
-
-    if (areRotatedSquaresLegal) {
+    if (board.fits(rotatedShape, activeBlock.getRow(), activeBlock.getColumn())) {
       activeBlock.rotate(rotation);
       return true;
     } else {
@@ -236,28 +416,29 @@ public class TetrisGame extends Broker {
     }
   }
 
-  @SuppressWarnings("StatementWithEmptyBody")
-  private Collection<ColoredSquare> getGhostSquares() {
+  private int getDropDistance(Block block) {
+    return board.getDropDistance(block.getShape(), block.getRow(), block.getColumn());
+  }
+
+  Collection<ColoredSquare> getGhostSquares() {
     if (activeBlock == null) {
       return List.of();
     }
 
-    Block activeBlockCopy = activeBlock.copy();
-    Collection<ColoredSquare> currentActiveBlockSquares = activeBlockCopy.getOccupiedSquares();
+    BlockShape shape = activeBlock.getShape();
+    int dropDistance = getDropDistance(activeBlock);
+    List<ColoredSquare> ghostSquares = new ArrayList<>(shape.getSquareCount());
 
-    while (moveBlock(activeBlockCopy, 1, 0)) {
-      // drop as far as possible
-    }
-    Collection<ColoredSquare> ghostSquares = activeBlockCopy.getOccupiedSquares();
+    for (int square = 0; square < shape.getSquareCount(); square++) {
+      int rowOffset = shape.getRowOffset(square);
+      int columnOffset = shape.getColumnOffset(square);
 
-    // remove any ghost squares that overlap with the current active block
-    ghostSquares.removeIf(ghostSquare ->
-      currentActiveBlockSquares.stream().anyMatch(activeBlockSquare ->
-        activeBlockSquare.getRow() == ghostSquare.getRow() && activeBlockSquare.getColumn() == ghostSquare.getColumn()
-      )
-    );
+      // skip any ghost squares that overlap with the current active block
+      if (!shape.occupies(rowOffset + dropDistance, columnOffset)) {
+        ghostSquares.add(new ColoredSquare(null, activeBlock.getRow() + rowOffset + dropDistance, activeBlock.getColumn() + columnOffset));
+      }
+    }
 
-    ghostSquares.forEach(ColoredSquare::clearColor);
     return ghostSquares;
   }
 
@@ -266,11 +447,33 @@ public class TetrisGame extends Broker {
    * If the piece could not be dropped, its colors are logged to the color grid and any complete rows removed
    */
   public void tryMoveActiveBlockDown() {
+    GravityStepEvent event = new GravityStepEvent();
+    event.begin();
+
+    boolean locked;
+    if (loopMetrics.isEnabled()) {
+      long start = System.nanoTime();
+      locked = moveActiveBlockDownOrLock();
+      loopMetrics.getGravityStep().record(System.nanoTime() - start);
+    } else {
+      locked = moveActiveBlockDownOrLock();
+    }
+
+    if (event.shouldCommit()) {
+      event.level = level;
+      event.locked = locked;
+      event.commit();
+    }
+  }
+
+  /** @return Whether the block was locked, rather than moved down */
+  private boolean moveActiveBlockDownOrLock() {
     if (moveActiveBlockDown()) {
-      return;
+      return false;
     }
 
     persistActiveBlockColors();
+    blocksPlaced++;
     int linesCleared = clearCompleteLines();
 
     if (linesCleared > 0) {
@@ -281,56 +484,133 @@ public class TetrisGame extends Broker {
     if (!isGameWon) {
       spawn(conveyor.next());
     }
+    return true;
   }
 
-  private int clearCompleteLines() {
-    int completeRowScanIndex = Math.min(activeBlock.getRow(), VERTICAL_DIMENSION - 1);
-    int minRowScanIndex = Math.max(0, completeRowScanIndex - 3);
+  int clearCompleteLines() {
+    LineClearEvent event = new LineClearEvent();
+    event.begin();
 
-    int linesCleared = 0;
-    while (completeRowScanIndex >= minRowScanIndex && linesCleared <= 4) {
+    BlockShape shape = activeBlock.getShape();
+    int topRow = Math.max(0, activeBlock.getRow() + shape.getTopOffset());
+    int bottomRow = Math.min(rows - 1, activeBlock.getRow() + shape.getTopOffset() + shape.getHeight() - 1);
+    int linesCleared = board.removeFullRows(topRow, bottomRow);
 
-      Color[] rowToScan = persistedBlocks.get(completeRowScanIndex);
-      boolean isRowComplete = Arrays.stream(rowToScan).allMatch(Objects::nonNull);
-      if (isRowComplete) {
-        persistedBlocks.remove(completeRowScanIndex);
-        persistedBlocks.offerFirst(new Color[HORIZONTAL_DIMENSION]);
-        linesCleared++;
-      } else {
-        completeRowScanIndex--;
-      }
+    if (event.shouldCommit()) {
+      event.linesCleared = linesCleared;
+      event.rowsScanned = bottomRow - topRow + 1;
+      event.level = level;
+      event.commit();
     }
-
     return linesCleared;
   }
 
   public void persistActiveBlockColors() {
     if (activeBlock != null) {
-      for (var square : activeBlock.getOccupiedSquares()) {
-        setColor(square.getRow(), square.getColumn(), square.getColor());
+      BlockShape shape = activeBlock.getShape();
+      Color color = activeBlock.getType().getColor();
+      for (int square = 0; square < shape.getSquareCount(); square++) {
+        setColor(activeBlock.getRow() + shape.getRowOffset(square), activeBlock.getColumn() + shape.getColumnOffset(square), color);
+      }
+    }
+  }
+
+  /** @return A copy of the complete game state, which can later be handed to {@link #restore} */
+  public GameSnapshot snapshot() {
+    int[] spawnWeights = new int[BlockType.values().length];
+    for (BlockType type : BlockType.values()) {
+      spawnWeights[type.ordinal()] = conveyor.isEnabled(type) ? conveyor.getSpawnWeight(type) : -1;
+    }
+
+    return new GameSnapshot(
+      difficulty, timeAttack, conveyor.getRandomizer(), spawnWeights, seed, conveyor.getBlocksGenerated(),
+      board.copy(), activeBlock == null ? null : activeBlock.copy(), holdBlock == null ? null : holdBlock.copy(),
+      score, level, totalLinesCleared, blocksPlaced, gameTime, currentLevelTime, isGameWon, running,
+      fallDelay, fallDelayElapsed, secondElapsed, elapsedMillis
+    );
+  }
+
+  /**
+   * Puts the game back into the state captured by the given snapshot, including its settings. The snapshot must come
+   * from a game with the same board dimensions, and is left untouched, so it can be restored any number of times.
+   * Publishes the score, level and time so that displays refresh.
+   */
+  public void restore(GameSnapshot snapshot) {
+    if (snapshot.getRows() != rows || snapshot.getColumns() != columns) {
+      throw new IllegalArgumentException("Snapshot of a " + snapshot.getRows() + "x" + snapshot.getColumns() + " game can't be restored into a " + rows + "x" + columns + " game");
+    }
+
+    this.difficulty = snapshot.difficulty;
+    this.timeAttack = snapshot.timeAttack;
+
+    conveyor.setRandomizer(snapshot.randomizer);
+    for (BlockType type : BlockType.values()) {
+      int spawnWeight = snapshot.spawnWeights[type.ordinal()];
+      if (spawnWeight < 0) {
+        conveyor.disableBlockType(type);
+      } else {
+        conveyor.enableBlockType(type, spawnWeight);
       }
     }
+    this.seed = snapshot.seed;
+    conveyor.restore(snapshot.seed, snapshot.blocksGenerated);
+
+    board.copyFrom(snapshot.board);
+    this.activeBlock = snapshot.activeBlock == null ? null : snapshot.activeBlock.copy();
+    this.holdBlock = snapshot.holdBlock == null ? null : snapshot.holdBlock.copy();
+
+    this.score = snapshot.score;
+    this.level = snapshot.level;
+    this.totalLinesCleared = snapshot.totalLinesCleared;
+    this.blocksPlaced = snapshot.blocksPlaced;
+    this.gameTime = snapshot.gameTime;
+    this.currentLevelTime = snapshot.currentLevelTime;
+    this.isGameWon = snapshot.gameWon;
+    this.running = snapshot.running;
+
+    this.fallDelay = snapshot.fallDelay;
+    this.fallDelayElapsed = snapshot.fallDelayElapsed;
+    this.secondElapsed = snapshot.secondElapsed;
+    this.elapsedMillis = snapshot.elapsedMillis;
+
+    publish(TetrisEvent.SCORE_CHANGED, score);
+    publish(TetrisEvent.LEVEL_CHANGED, getLevel());
+    publish(TetrisEvent.TIME_CHANGED, gameTime);
   }
 
+  /** Starts a new game with a freshly generated seed */
   public void reset() {
+    reset(ThreadLocalRandom.current().nextLong());
+  }
+
+  /**
+   * Starts a new game whose block sequence is generated from the given seed. Games started with the same seed, settings
+   * and inputs always play out identically.
+   */
+  public void reset(long seed) {
+    this.seed = seed;
+
     setGameTime(0);
     setScore(0);
     setLevel(1);
 
     this.isGameWon = false;
     this.totalLinesCleared = 0;
+    this.blocksPlaced = 0;
     this.currentLevelTime = 0;
 
     clearActiveBlock();
     clearHoldBlock();
 
-    this.persistedBlocks.forEach(row -> Arrays.fill(row, null));
+    this.board.clear();
 
-    this.conveyor.reset();
-    spawn(this.conveyor.next());
+    this.fallDelayElapsed = 0;
+    this.secondElapsed = 0;
+    this.elapsedMillis = 0;
+    resume();
 
-    this.gameTimer.start();
-    this.fallTimer.start();
+    this.conveyor.reset(seed);
+    spawn(this.conveyor.next());
   }
 
   private void increaseScore(int completedLines) {
@@ -345,10 +625,7 @@ public class TetrisGame extends Broker {
     };
 
     // Special pieces bonus
-    newScore += conveyor.getEnabledSpecialBlockTypes()
-                        .stream()
-                        .mapToInt(special -> completedLines * special.getBonusPointsPerLine())
-                        .sum();
+    newScore += completedLines * conveyor.getSpecialBonusPointsPerLine();
 
     int maxGameLines = difficulty.getLinesPerLevel() * MAX_LEVEL;
     totalLinesCleared = Math.min(maxGameLines, totalLinesCleared + completedLines);
@@ -372,55 +649,82 @@ public class TetrisGame extends Broker {
     setScore(newScore);
   }
 
+  /** @return Column blocks spawn at on a board with the given number of columns: the middle, unless that's too narrow */
+  public static int getSpawnColumn(int columns) {
+    return Math.min(columns / 2, columns - MIN_COLUMNS); // The widest block is MIN_COLUMNS wide
+  }
+
   /**
    * Attempts to spawn the given block object in the board model, replacing the current active block.
    */
   public void spawn(Block block) {
-    int startRow = block.getType().getStartRow();
-    int startCol = HORIZONTAL_DIMENSION / 2;
-
-    while (true) {
-      var spawnSquares = block.getType().calculateOccupiedSquares(0, startRow, startCol);
-
-      boolean anyVisible = spawnSquares.stream().anyMatch(square -> square.getRow() >= 3);
-      if (!anyVisible) {
-        fallTimer.stop();
-        gameTimer.stop();
-        publish(TetrisEvent.SPAWN_FAIL, block);
-        return;
-      }
+    SpawnEvent event = new SpawnEvent();
+    event.begin();
 
-      boolean allOpen = spawnSquares.stream().allMatch(square -> isOpenAndInBounds(square.getRow(), square.getColumn()));
-      if (allOpen) {
-        block.setLocation(startRow, startCol);
-        this.activeBlock = block;
-        return;
-      } else {
-        startRow--; // Try to push piece upwards past board bounds if we can
-      }
+    int startCol = getSpawnColumn(columns);
+    int spawnRow = board.findSpawnRow(block.getShape(), block.getType().getStartRow(), startCol, HIDDEN_ROWS);
+
+    if (spawnRow == Integer.MIN_VALUE) {
+      pause();
+      publish(TetrisEvent.SPAWN_FAIL, block);
+    } else {
+      block.setLocation(spawnRow, startCol);
+      this.activeBlock = block;
+    }
+
+    if (event.shouldCommit()) {
+      event.blockType = block.getType().toString();
+      event.row = spawnRow;
+      event.spawned = spawnRow != Integer.MIN_VALUE;
+      event.level = level;
+      event.commit();
     }
   }
 
   public Collection<ColoredSquare> getColoredSquares() {
-    List<ColoredSquare> squares = new ArrayList<>(HORIZONTAL_DIMENSION * VERTICAL_DIMENSION);
+    List<ColoredSquare> squares = new ArrayList<>(getActiveSquares());
+    squares.addAll(getPersistedSquares(0, rows - 1));
+    return squares;
+  }
 
-    if (activeBlock != null) {
-      squares.addAll(activeBlock.getOccupiedSquares());
-      if (this.ghostSquaresEnabled) {
-        squares.addAll(getGhostSquares());
-      }
+  /** @return Squares of the active block, plus its ghost squares if they're enabled */
+  public Collection<ColoredSquare> getActiveSquares() {
+    if (activeBlock == null) {
+      return List.of();
     }
 
-    for (int rowIndex = 0; rowIndex < VERTICAL_DIMENSION; rowIndex++) {
-      Color[] rowColors = persistedBlocks.get(rowIndex);
-      for (int columnIndex = 0; columnIndex < rowColors.length; columnIndex++) {
-        if (rowColors[columnIndex] != null) {
-          squares.add(new ColoredSquare(rowColors[columnIndex], rowIndex, columnIndex));
-        }
+    List<ColoredSquare> squares = new ArrayList<>(activeBlock.getOccupiedSquares());
+    if (this.ghostSquaresEnabled) {
+      squares.addAll(getGhostSquares());
+    }
+    return squares;
+  }
+
+  /**
+   * @return Persisted squares between the given rows, inclusive. Only visits occupied squares, so the cost follows the
+   *         number of squares returned rather than the area of the rows.
+   */
+  public Collection<ColoredSquare> getPersistedSquares(int fromRow, int toRow) {
+    List<ColoredSquare> squares = new ArrayList<>();
+
+    for (int row = Math.max(0, fromRow); row <= Math.min(rows - 1, toRow); row++) {
+      if (board.isRowEmpty(row)) {
+        continue;
+      }
+      for (int column = board.nextOccupiedColumn(row, 0); column < columns; column = board.nextOccupiedColumn(row, column + 1)) {
+        squares.add(new ColoredSquare(board.getColor(row, column), row, column));
       }
     }
 
     return squares;
   }
 
+  /**
+   * @return The top and bottom rows (inclusive) whose persisted squares changed since the last call, so renderers can
+   *         redraw only those. The top is greater than the bottom if nothing changed.
+   */
+  public int[] takeChangedRows() {
+    return board.takeChangedRows();
+  }
+
 }
@@ -1,13 +1,10 @@
 package com.github.tylersharpe.tetris;
 
 import java.awt.*;
-import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 public final class Utility {
 
-  private static final Random RANDOM = new Random();
-
   private Utility() {}
 
   public static String formatSeconds(long seconds) {
@@ -18,12 +15,9 @@ public final class Utility {
            (secondsLeftover < 10 ? "0" : "") + secondsLeftover;
   }
 
-  static <T> T sample(List<T> items) {
-    return items.get(RANDOM.nextInt(items.size()));
-  }
-
+  /** Samples using the calling thread's own generator, for randomness that doesn't need to be reproducible */
   static <T> T sample(T[] values) {
-    return values[RANDOM.nextInt(values.length)];
+    return values[ThreadLocalRandom.current().nextInt(values.length)];
   }
 
   public static Color getRandomColor() {
@@ -0,0 +1,54 @@
+package com.github.tylersharpe.tetris;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Variable-length encoding of integers for the binary save formats: seven bits per byte, least significant first, with
+ * the top bit set on every byte but the last. Small values take a single byte.
+ */
+public final class Varints {
+
+  private Varints() {}
+
+  public static void writeUnsigned(DataOutput out, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      out.writeByte((int) (value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte((int) value);
+  }
+
+  public static long readUnsigned(DataInput in) throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < Long.SIZE; shift += 7) {
+      int b = in.readUnsignedByte();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed varint");
+  }
+
+  /** Zigzag-encodes the value first, so that small negative values stay small */
+  public static void writeSigned(DataOutput out, long value) throws IOException {
+    writeUnsigned(out, (value << 1) ^ (value >> 63));
+  }
+
+  public static long readSigned(DataInput in) throws IOException {
+    long encoded = readUnsigned(in);
+    return (encoded >>> 1) ^ -(encoded & 1);
+  }
+
+  /** @return The enum constant whose ordinal is the next unsigned varint */
+  public static <E extends Enum<E>> E readEnum(DataInput in, E[] values) throws IOException {
+    long ordinal = readUnsigned(in);
+    if (ordinal >= values.length) {
+      throw new IOException("Unknown " + values.getClass().getComponentType().getSimpleName() + " ordinal " + ordinal);
+    }
+    return values[(int) ordinal];
+  }
+
+}
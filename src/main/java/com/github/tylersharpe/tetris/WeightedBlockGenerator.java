@@ -0,0 +1,30 @@
+package com.github.tylersharpe.tetris;
+
+import java.util.SplittableRandom;
+
+/**
+ * Draws every block independently, in proportion to its spawn weight
+ */
+final class WeightedBlockGenerator implements BlockGenerator {
+
+  private final int[] spawnWeights;
+  private WeightedSampler sampler; // Rebuilt lazily after the spawn weights change
+
+  WeightedBlockGenerator(int[] spawnWeights) {
+    this.spawnWeights = spawnWeights;
+  }
+
+  @Override
+  public int next(SplittableRandom random) {
+    if (sampler == null) {
+      sampler = new WeightedSampler(spawnWeights);
+    }
+    return sampler.sample(random);
+  }
+
+  @Override
+  public void onSpawnWeightsChanged() {
+    sampler = null;
+  }
+
+}
@@ -0,0 +1,91 @@
+package com.github.tylersharpe.tetris;
+
+import java.util.SplittableRandom;
+
+/**
+ * Samples indices in proportion to integer weights in constant time, using Vose's alias method. Probabilities are kept
+ * as exact integer fractions of the total weight, so the sampled distribution matches the weights with no rounding.
+ */
+final class WeightedSampler {
+
+  private final int[] values;     // Value returned for each slot
+  private final int[] thresholds; // Slot keeps its own value when a draw in [0, totalWeight) falls below its threshold
+  private final int[] aliases;    // Otherwise, the slot's draw goes to this value instead
+  private final int totalWeight;
+
+  /**
+   * @param weights Weight of each index; indices with a weight of 0 are never sampled
+   */
+  WeightedSampler(int[] weights) {
+    int slotCount = 0;
+    long weightSum = 0;
+    for (int weight : weights) {
+      if (weight < 0) {
+        throw new IllegalArgumentException("Weights cannot be negative");
+      }
+      if (weight > 0) {
+        slotCount++;
+        weightSum += weight;
+      }
+    }
+    if (slotCount == 0) {
+      throw new IllegalArgumentException("At least one weight must be positive");
+    }
+    if (weightSum * slotCount > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Weights are too large to sample exactly");
+    }
+
+    this.values = new int[slotCount];
+    this.thresholds = new int[slotCount];
+    this.aliases = new int[slotCount];
+    this.totalWeight = (int) weightSum;
+
+    // Each slot's weight is scaled by the slot count, so that an evenly filled slot holds exactly totalWeight
+    int[] scaledWeights = new int[slotCount];
+    int[] small = new int[slotCount], large = new int[slotCount];
+    int smallCount = 0, largeCount = 0;
+
+    int slot = 0;
+    for (int index = 0; index < weights.length; index++) {
+      if (weights[index] > 0) {
+        values[slot] = index;
+        scaledWeights[slot] = weights[index] * slotCount;
+        if (scaledWeights[slot] < totalWeight) {
+          small[smallCount++] = slot;
+        } else {
+          large[largeCount++] = slot;
+        }
+        slot++;
+      }
+    }
+
+    while (smallCount > 0 && largeCount > 0) {
+      int smallSlot = small[--smallCount];
+      int largeSlot = large[--largeCount];
+
+      thresholds[smallSlot] = scaledWeights[smallSlot];
+      aliases[smallSlot] = values[largeSlot];
+
+      scaledWeights[largeSlot] -= totalWeight - scaledWeights[smallSlot];
+      if (scaledWeights[largeSlot] < totalWeight) {
+        small[smallCount++] = largeSlot;
+      } else {
+        large[largeCount++] = largeSlot;
+      }
+    }
+
+    // Whatever remains is exactly full
+    while (largeCount > 0) {
+      thresholds[large[--largeCount]] = totalWeight;
+    }
+    while (smallCount > 0) {
+      thresholds[small[--smallCount]] = totalWeight;
+    }
+  }
+
+  int sample(SplittableRandom random) {
+    int slot = random.nextInt(values.length);
+    return random.nextInt(totalWeight) < thresholds[slot] ? values[slot] : aliases[slot];
+  }
+
+}
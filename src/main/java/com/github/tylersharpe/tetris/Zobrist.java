@@ -0,0 +1,55 @@
+package com.github.tylersharpe.tetris;
+
+/**
+ * Zobrist keys for hashing game positions. A position's hash is the XOR of the keys of everything in it, so it can be
+ * updated incrementally as squares are filled and emptied. The board contributes one key per occupied row, derived from
+ * the row's index and the XOR of its squares' column keys, so a row which moves keeps its contents' hash and only its
+ * row key needs recomputing. Keys are derived on demand by mixing their inputs rather than looked up in a table, so they
+ * cover boards of any size.
+ */
+public final class Zobrist {
+
+  // Distinct salts keep the keys of different kinds of feature independent of one another
+  private static final long COLUMN_SALT = 0x9E3779B97F4A7C15L;
+  private static final long ROW_SALT = 0xBF58476D1CE4E5B9L;
+  private static final long ACTIVE_SALT = 0xC2B2AE3D27D4EB4FL;
+  private static final long HOLD_SALT = 0x165667B19E3779F9L;
+  private static final long QUEUE_SALT = 0xD6E8FEB86659FD93L;
+
+  private Zobrist() {
+  }
+
+  /** @return Key for an occupied square in the given column, whichever row it is in */
+  public static long columnKey(int column) {
+    return mix(COLUMN_SALT ^ column);
+  }
+
+  /** @return Key for the given row holding squares whose column keys XOR to the given value */
+  public static long rowKey(int row, long columnKeys) {
+    return mix(columnKeys ^ mix(ROW_SALT ^ row));
+  }
+
+  /** @return Key for the active block being of the given type and orientation, anchored at the given position */
+  public static long activeBlockKey(BlockType type, int orientation, int row, int column) {
+    long packed = ((long) type.ordinal() << 56) | ((long) orientation << 48) | ((long) (row & 0xFFFFFF) << 24) | (column & 0xFFFFFF);
+    return mix(ACTIVE_SALT ^ packed);
+  }
+
+  /** @return Key for the hold slot containing a block of the given type and orientation */
+  public static long holdKey(BlockType type, int orientation) {
+    return mix(HOLD_SALT ^ ((long) type.ordinal() << 8 | orientation));
+  }
+
+  /** @return Key for how many blocks have been taken from a known sequence of upcoming blocks */
+  public static long queueKey(int position) {
+    return mix(QUEUE_SALT ^ position);
+  }
+
+  // SplitMix64 finalizer: a bijection which spreads every input bit across the whole output
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+}
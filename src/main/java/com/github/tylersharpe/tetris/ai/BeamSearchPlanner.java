@@ -0,0 +1,319 @@
+package com.github.tylersharpe.tetris.ai;
+
+import com.github.tylersharpe.tetris.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Plans the current block by looking ahead through the preview and the hold slot. Each level of the search places one
+ * more block: every line of play kept from the previous level is expanded by playing its current block directly, by
+ * holding it and playing the next one, or by releasing the held block in its place. Only the best {@link #setBeamWidth
+ * beam width} lines survive to the next level, after merging lines which reach the same position by a different
+ * order of moves. Lines are expanded in parallel on a ForkJoinPool, and every expansion shares one
+ * {@link TranspositionTable} of board evaluations.
+ *
+ * <p>The search stops at the configured depth or when the per-move time budget runs out, whichever comes first, and
+ * answers with the best line of the deepest level it completed. The first level is always searched in full, so a plan
+ * is available however small the budget.
+ */
+public class BeamSearchPlanner {
+
+  public static final int DEFAULT_TABLE_CAPACITY = 1 << 20;
+
+  private static final Comparator<Node> BEST_FIRST = Comparator.comparingDouble((Node node) -> node.score).reversed();
+
+  private final BoardEvaluator evaluator;
+  private final ForkJoinPool pool;
+  private final TranspositionTable table;
+  private final ThreadLocal<PlacementSearch> searches;
+  private int depth = 3;
+  private int beamWidth = 16;
+  private long timeBudgetMillis = 50;
+
+  public BeamSearchPlanner(BoardEvaluator evaluator, ForkJoinPool pool) {
+    this(evaluator, pool, new TranspositionTable(DEFAULT_TABLE_CAPACITY));
+  }
+
+  /** @param table Cache of board evaluations. Must only be shared with searches using the same evaluator */
+  public BeamSearchPlanner(BoardEvaluator evaluator, ForkJoinPool pool, TranspositionTable table) {
+    this.evaluator = Objects.requireNonNull(evaluator, "'evaluator' cannot be null");
+    this.pool = Objects.requireNonNull(pool, "'pool' cannot be null");
+    this.table = Objects.requireNonNull(table, "'table' cannot be null");
+    this.searches = ThreadLocal.withInitial(() -> new PlacementSearch(evaluator, table));
+  }
+
+  public BoardEvaluator getEvaluator() {
+    return evaluator;
+  }
+
+  /** @return The evaluation cache, whose hit rate shows whether it is large enough */
+  public TranspositionTable getTranspositionTable() {
+    return table;
+  }
+
+  /** Sets how many blocks to place along each line of play. Limited in practice by the game's preview depth */
+  public void setDepth(int depth) {
+    if (depth < 1) {
+      throw new IllegalArgumentException("Depth must be at least 1");
+    }
+    this.depth = depth;
+  }
+
+  /** Sets how many lines of play are kept at each level of the search */
+  public void setBeamWidth(int beamWidth) {
+    if (beamWidth < 1) {
+      throw new IllegalArgumentException("Beam width must be at least 1");
+    }
+    this.beamWidth = beamWidth;
+  }
+
+  /** Sets the wall-clock time a single call to {@link #plan} may take */
+  public void setTimeBudgetMillis(long timeBudgetMillis) {
+    if (timeBudgetMillis < 1) {
+      throw new IllegalArgumentException("Time budget must be at least 1 millisecond");
+    }
+    this.timeBudgetMillis = timeBudgetMillis;
+  }
+
+  /** @return The best way to play the game's active block, or empty if there is no active block or nowhere to put it */
+  public Optional<Plan> plan(TetrisGame game) {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+
+    Block activeBlock = game.getActiveBlock();
+    if (activeBlock == null) {
+      return Optional.empty();
+    }
+
+    BlockConveyor conveyor = game.getConveyor();
+    BlockType[] pieces = new BlockType[1 + conveyor.getPreviewDepth()];
+    pieces[0] = activeBlock.getType();
+    for (int i = 1; i < pieces.length; i++) {
+      pieces[i] = conveyor.peek(i - 1).getType();
+    }
+
+    Block holdBlock = game.getHoldBlock().orElse(null);
+    Node root = new Node(
+      0, List.of(), game.copyBoard().copyOccupancy(), null, 0, 0, 0,
+      holdBlock == null ? null : holdBlock.getType(),
+      holdBlock == null ? 0 : holdBlock.getOrientation(),
+      activeBlock.isHoldBlock()
+    );
+    Search search = new Search(pieces, activeBlock, deadline);
+
+    // The first level is always completed so that there's an answer, however tight the budget
+    List<Node> beam = selectBeam(search.expand(root));
+    if (beam.isEmpty()) {
+      return Optional.empty();
+    }
+
+    int depthReached = 1;
+    boolean budgetExpired = false;
+
+    while (depthReached < depth) {
+      long remainingNanos = deadline - System.nanoTime();
+      if (remainingNanos <= 0) {
+        budgetExpired = true;
+        break;
+      }
+
+      List<Node> parents = beam;
+      Future<List<Node>> level = pool.submit(() ->
+        parents.parallelStream()
+               .flatMap(parent -> search.expand(parent).stream())
+               .collect(Collectors.toList())
+      );
+
+      List<Node> children;
+      try {
+        children = level.get(remainingNanos, TimeUnit.NANOSECONDS);
+      } catch (TimeoutException e) {
+        search.expired.set(true);
+        level.cancel(true);
+        budgetExpired = true;
+        break;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        search.expired.set(true);
+        budgetExpired = true;
+        break;
+      } catch (ExecutionException e) {
+        throw new RuntimeException("Beam search failed", e.getCause());
+      }
+
+      // A level cut short by the deadline only explored some of its lines, so it can't be compared fairly
+      if (search.expired.get()) {
+        budgetExpired = true;
+        break;
+      }
+      if (children.isEmpty()) {
+        break; // Out of preview blocks, or every line of play ends the game
+      }
+
+      beam = selectBeam(children);
+      depthReached++;
+    }
+
+    Node best = beam.get(0);
+    return Optional.of(new Plan(best.rootInputs, best.score, depthReached, search.nodesExpanded.get(), budgetExpired));
+  }
+
+  /** @return The best candidates, keeping only the highest scoring of any which reach the same position */
+  private List<Node> selectBeam(List<Node> candidates) {
+    candidates.sort(BEST_FIRST);
+
+    List<Node> beam = new ArrayList<>(beamWidth);
+    Set<Long> positions = new HashSet<>();
+    for (Node candidate : candidates) {
+      if (positions.add(candidate.positionHash())) {
+        beam.add(candidate);
+        if (beam.size() == beamWidth) {
+          break;
+        }
+      }
+    }
+    return beam;
+  }
+
+  /** State shared by every expansion of a single call to {@link #plan} */
+  private final class Search {
+
+    private final BlockType[] pieces; // Active block's type followed by the preview
+    private final Block activeBlock;
+    private final long deadline;
+    private final AtomicBoolean expired = new AtomicBoolean();
+    private final AtomicInteger nodesExpanded = new AtomicInteger();
+
+    Search(BlockType[] pieces, Block activeBlock, long deadline) {
+      this.pieces = pieces;
+      this.activeBlock = activeBlock;
+      this.deadline = deadline;
+    }
+
+    List<Node> expand(Node node) {
+      List<Node> children = new ArrayList<>();
+      if (node.pieceIndex >= pieces.length || isExpired(node)) {
+        return children;
+      }
+      nodesExpanded.incrementAndGet();
+
+      PlacementSearch placementSearch = searches.get();
+      int pieceIndex = node.pieceIndex;
+      boolean isRoot = node.depth == 0;
+      BlockType current = pieces[pieceIndex];
+      int currentOrientation = isRoot ? activeBlock.getOrientation() : 0;
+
+      // Play the current block where it is
+      Board board = node.board();
+      List<Placement> direct = isRoot
+        ? placementSearch.findPlacements(board, current, currentOrientation, activeBlock.getRow(), activeBlock.getColumn())
+        : findSpawnedPlacements(placementSearch, board, current, currentOrientation);
+      addChildren(children, node, direct, null, pieceIndex + 1, node.holdType, node.holdOrientation);
+
+      // Hold the current block and play the next one. A block which has already been held can't be held again
+      if (node.holdType == null && !node.currentIsHeld && pieceIndex + 1 < pieces.length) {
+        List<Placement> afterHold = findSpawnedPlacements(placementSearch, board, pieces[pieceIndex + 1], 0);
+        addChildren(children, node, afterHold, GameInput.HOLD, pieceIndex + 2, current, currentOrientation);
+      }
+
+      // Release the held block in place of the current one, which is discarded
+      if (node.holdType != null) {
+        List<Placement> afterRelease = findSpawnedPlacements(placementSearch, board, node.holdType, node.holdOrientation);
+        addChildren(children, node, afterRelease, GameInput.RELEASE_HOLD, pieceIndex + 1, null, 0);
+      }
+
+      return children;
+    }
+
+    private boolean isExpired(Node node) {
+      if (node.depth == 0) {
+        return false;
+      }
+      if (expired.get() || System.nanoTime() > deadline) {
+        expired.set(true);
+        return true;
+      }
+      return false;
+    }
+
+    private List<Placement> findSpawnedPlacements(PlacementSearch placementSearch, Board board, BlockType type, int orientation) {
+      int column = TetrisGame.getSpawnColumn(board.getColumns());
+      int row = board.findSpawnRow(type.getShape(orientation), type.getStartRow(), column, TetrisGame.HIDDEN_ROWS);
+      if (row == Integer.MIN_VALUE) {
+        return List.of(); // Spawning here would end the game
+      }
+      return placementSearch.findPlacements(board, type, orientation, row, column);
+    }
+
+    private void addChildren(List<Node> children, Node parent, List<Placement> placements, GameInput prefix,
+                             int nextPieceIndex, BlockType holdType, int holdOrientation) {
+      for (Placement placement : placements) {
+        List<GameInput> rootInputs = parent.rootInputs;
+        if (parent.depth == 0) {
+          rootInputs = prefix == null ? placement.getInputs() : prepend(prefix, placement.getInputs());
+        }
+
+        int linesCleared = parent.linesCleared + placement.getLinesCleared();
+        double score = placement.getScore() + evaluator.getWeights().get(Feature.COMPLETED_LINES) * parent.linesCleared;
+
+        children.add(new Node(parent.depth + 1, rootInputs, null, placement, nextPieceIndex, linesCleared, score, holdType, holdOrientation, false));
+      }
+    }
+
+    private List<GameInput> prepend(GameInput first, List<GameInput> rest) {
+      List<GameInput> inputs = new ArrayList<>(rest.size() + 1);
+      inputs.add(first);
+      inputs.addAll(rest);
+      return List.copyOf(inputs);
+    }
+
+  }
+
+  /** A line of play: the board after placing some number of blocks, and the inputs of its first move */
+  private static final class Node {
+
+    final int depth; // Number of blocks placed along this line of play
+    final List<GameInput> rootInputs;
+    final Board rootBoard; // Only set on the root; other nodes take their board from their placement
+    final Placement placement;
+    final int pieceIndex; // Index of the block to play next, within the active block and preview
+    final int linesCleared; // Cumulative along this line of play
+    final double score;
+    final BlockType holdType;
+    final int holdOrientation;
+    final boolean currentIsHeld; // Whether the block to play next has already been held once
+
+    Node(int depth, List<GameInput> rootInputs, Board rootBoard, Placement placement, int pieceIndex, int linesCleared,
+         double score, BlockType holdType, int holdOrientation, boolean currentIsHeld) {
+      this.depth = depth;
+      this.rootInputs = rootInputs;
+      this.rootBoard = rootBoard;
+      this.placement = placement;
+      this.pieceIndex = pieceIndex;
+      this.linesCleared = linesCleared;
+      this.score = score;
+      this.holdType = holdType;
+      this.holdOrientation = holdOrientation;
+      this.currentIsHeld = currentIsHeld;
+    }
+
+    Board board() {
+      return placement == null ? rootBoard : placement.getResultingBoard();
+    }
+
+    /** @return Zobrist hash of everything which decides how this line of play can continue */
+    long positionHash() {
+      long hash = placement == null ? rootBoard.getZobristHash() : placement.getResultingHash();
+      hash ^= Zobrist.queueKey(pieceIndex);
+      if (holdType != null) {
+        hash ^= Zobrist.holdKey(holdType, holdOrientation);
+      }
+      return hash;
+    }
+
+  }
+
+}
@@ -0,0 +1,76 @@
+package com.github.tylersharpe.tetris.ai;
+
+import com.github.tylersharpe.tetris.Board;
+
+import java.util.Objects;
+
+/**
+ * Scores a board as the weighted sum of its {@link Feature}s; higher is better. Stateless, so a single instance can be
+ * shared between threads.
+ */
+public class BoardEvaluator {
+
+  private final double heightWeight, holesWeight, bumpinessWeight, linesWeight, wellWeight;
+  private final EvaluationWeights weights;
+
+  public BoardEvaluator(EvaluationWeights weights) {
+    this.weights = Objects.requireNonNull(weights, "'weights' cannot be null");
+    this.heightWeight = weights.get(Feature.AGGREGATE_HEIGHT);
+    this.holesWeight = weights.get(Feature.HOLES);
+    this.bumpinessWeight = weights.get(Feature.BUMPINESS);
+    this.linesWeight = weights.get(Feature.COMPLETED_LINES);
+    this.wellWeight = weights.get(Feature.WELL_DEPTH);
+  }
+
+  public EvaluationWeights getWeights() {
+    return weights;
+  }
+
+  /**
+   * @param board Board after a placement has been locked and its completed lines removed
+   * @param linesCleared Number of lines the placement completed
+   */
+  public double evaluate(Board board, int linesCleared) {
+    return evaluateBoard(board) + scoreLines(linesCleared);
+  }
+
+  /** @return Contribution of completed lines to a placement's score */
+  public double scoreLines(int linesCleared) {
+    return linesWeight * linesCleared;
+  }
+
+  /**
+   * @return Score of every feature except completed lines, which depends only on the board's occupancy and so can be
+   *         cached by the board's Zobrist hash
+   */
+  public double evaluateBoard(Board board) {
+    int rows = board.getRows();
+    int columns = board.getColumns();
+    int aggregateHeight = 0, holes = 0, bumpiness = 0, wellDepth = 0;
+
+    for (int column = 0; column < columns; column++) {
+      int surface = board.getColumnSurface(column);
+      int height = rows - surface;
+      aggregateHeight += height;
+
+      for (int row = surface + 1; row < rows; row++) {
+        if (!board.isOccupied(row, column)) {
+          holes++;
+        }
+      }
+
+      int leftHeight = column == 0 ? rows : rows - board.getColumnSurface(column - 1);
+      int rightHeight = column == columns - 1 ? rows : rows - board.getColumnSurface(column + 1);
+      if (column > 0) {
+        bumpiness += Math.abs(height - leftHeight);
+      }
+      wellDepth += Math.max(0, Math.min(leftHeight, rightHeight) - height);
+    }
+
+    return heightWeight * aggregateHeight
+         + holesWeight * holes
+         + bumpinessWeight * bumpiness
+         + wellWeight * wellDepth;
+  }
+
+}
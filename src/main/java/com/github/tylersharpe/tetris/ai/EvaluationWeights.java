@@ -0,0 +1,61 @@
+package com.github.tylersharpe.tetris.ai;
+
+import java.util.Arrays;
+
+/**
+ * Immutable set of weights, one per {@link Feature}, used to combine board features into a single score
+ */
+public final class EvaluationWeights {
+
+  private static final Feature[] FEATURES = Feature.values();
+
+  public static final EvaluationWeights DEFAULT = new EvaluationWeights(new double[] {
+    -0.510066, // AGGREGATE_HEIGHT
+    -0.35663,  // HOLES
+    -0.184483, // BUMPINESS
+    0.760666,  // COMPLETED_LINES
+    -0.05      // WELL_DEPTH
+  });
+
+  private final double[] weights;
+
+  /** @param weights Weight of each feature, indexed by {@link Feature#ordinal()} */
+  public EvaluationWeights(double[] weights) {
+    if (weights.length != FEATURES.length) {
+      throw new IllegalArgumentException("Expected " + FEATURES.length + " weights but got " + weights.length);
+    }
+    this.weights = weights.clone();
+  }
+
+  public double get(Feature feature) {
+    return weights[feature.ordinal()];
+  }
+
+  /** @return A copy of the weights, indexed by {@link Feature#ordinal()} */
+  public double[] toArray() {
+    return weights.clone();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof EvaluationWeights && Arrays.equals(weights, ((EvaluationWeights) o).weights);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(weights);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("EvaluationWeights(");
+    for (Feature feature : FEATURES) {
+      if (feature.ordinal() > 0) {
+        builder.append(", ");
+      }
+      builder.append(feature).append('=').append(weights[feature.ordinal()]);
+    }
+    return builder.append(')').toString();
+  }
+
+}
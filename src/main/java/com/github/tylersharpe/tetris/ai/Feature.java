@@ -0,0 +1,12 @@
+package com.github.tylersharpe.tetris.ai;
+
+/**
+ * Board characteristics which the {@link BoardEvaluator} weighs up when scoring a placement
+ */
+public enum Feature {
+  AGGREGATE_HEIGHT, // Sum of every column's height
+  HOLES,            // Empty squares with an occupied square somewhere above them
+  BUMPINESS,        // Sum of the height differences between neighbouring columns
+  COMPLETED_LINES,  // Lines cleared by the placement itself
+  WELL_DEPTH        // Sum of how far each column sits below both of its neighbours, counting walls as infinitely high
+}
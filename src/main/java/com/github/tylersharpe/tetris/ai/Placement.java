@@ -0,0 +1,99 @@
+package com.github.tylersharpe.tetris.ai;
+
+import com.github.tylersharpe.tetris.Board;
+import com.github.tylersharpe.tetris.BlockType;
+import com.github.tylersharpe.tetris.GameInput;
+
+import java.util.List;
+
+/**
+ * A final resting position of a block found by the {@link PlacementSearch}, along with the inputs that reach it
+ */
+public class Placement {
+
+  private final BlockType type;
+  private final int orientation, row, column;
+  private final List<GameInput> inputs;
+  private final Board sourceBoard;
+  private Board resultingBoard; // Created on first use, since most placements are scored from the cache and discarded
+  private final long resultingHash;
+  private final int linesCleared;
+  private final double score;
+
+  Placement(BlockType type, int orientation, int row, int column, List<GameInput> inputs, Board sourceBoard,
+            Board resultingBoard, long resultingHash, int linesCleared, double score) {
+    this.type = type;
+    this.orientation = orientation;
+    this.row = row;
+    this.column = column;
+    this.inputs = inputs;
+    this.sourceBoard = sourceBoard;
+    this.resultingBoard = resultingBoard;
+    this.resultingHash = resultingHash;
+    this.linesCleared = linesCleared;
+    this.score = score;
+  }
+
+  public BlockType getType() {
+    return type;
+  }
+
+  public int getOrientation() {
+    return orientation;
+  }
+
+  public int getRow() {
+    return row;
+  }
+
+  public int getColumn() {
+    return column;
+  }
+
+  /** @return Shortest sequence of inputs which moves the block from where it spawned to this placement and locks it */
+  public List<GameInput> getInputs() {
+    return inputs;
+  }
+
+  /** @return Occupancy of the board after this placement has locked and its completed lines have been removed */
+  public Board getResultingBoard() {
+    if (resultingBoard == null) {
+      resultingBoard = lockedCopy(sourceBoard, type, orientation, row, column);
+    }
+    return resultingBoard;
+  }
+
+  /** @return Zobrist hash of the resulting board */
+  public long getResultingHash() {
+    return resultingHash;
+  }
+
+  public int getLinesCleared() {
+    return linesCleared;
+  }
+
+  /** @return Evaluation of the resulting board; higher is better */
+  public double getScore() {
+    return score;
+  }
+
+  static Board lockedCopy(Board board, BlockType type, int orientation, int row, int column) {
+    Board copy = board.copyOccupancy();
+    copy.lock(type.getShape(orientation), row, column, type.getColor());
+    return copy;
+  }
+
+  @Override
+  public String toString() {
+    return "Placement(" +
+            "type=" + type +
+            ", orientation=" + orientation +
+            ", row=" + row +
+            ", column=" + column +
+            ", linesCleared=" + linesCleared +
+            ", score=" + score +
+            ", inputs=" + inputs +
+            ')';
+  }
+
+}
@@ -0,0 +1,259 @@
+package com.github.tylersharpe.tetris.ai;
+
+import com.github.tylersharpe.tetris.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Finds every placement a block can reach from where it currently sits, including tucks and slides beneath overhangs,
+ * by a breadth-first search over (orientation, row, column) states. Moves are tested with the board's own collision
+ * check, so every placement found can be reached in the real game by applying its inputs. Because the search is
+ * breadth-first, each placement's inputs are the shortest sequence that reaches it.
+ *
+ * <p>Instances reuse their search buffers between calls and so are not thread-safe; use one per thread.
+ */
+public class PlacementSearch {
+
+  private static final int ORIENTATIONS = 4;
+
+  // Moves which keep the block in play. Every placement is finished off with a DROP, which lands and locks the block
+  private static final GameInput[] MOVES = {
+    GameInput.MOVE_LEFT, GameInput.MOVE_RIGHT, GameInput.MOVE_DOWN, GameInput.ROTATE_CLOCKWISE, GameInput.ROTATE_COUNTER_CLOCKWISE
+  };
+
+  // How far outside the board a block's anchor can be while all of its squares are still inside
+  private static final int MARGIN = findMaxSquareOffset();
+
+  private final BoardEvaluator evaluator;
+  private final TranspositionTable table; // Null when evaluations aren't cached
+
+  // Search buffers indexed by state, sized for the last board searched. A state is visited in the current search when
+  // its stamp matches, so the buffers never need clearing
+  private int rowSpan, columnSpan;
+  private int[] visitStamps, landingStamps;
+  private int[] parents, landingSources, queue, landings;
+  private byte[] parentMoves;
+  private int stamp;
+
+  public PlacementSearch(BoardEvaluator evaluator) {
+    this(evaluator, null);
+  }
+
+  /**
+   * @param table Cache of board evaluations, which may be shared with other searches using the same evaluator, or null
+   *              to evaluate every placement
+   */
+  public PlacementSearch(BoardEvaluator evaluator, TranspositionTable table) {
+    this.evaluator = Objects.requireNonNull(evaluator, "'evaluator' cannot be null");
+    this.table = table;
+  }
+
+  public BoardEvaluator getEvaluator() {
+    return evaluator;
+  }
+
+  /** @return The highest scoring placement of the game's active block, or empty if there is no active block */
+  public Optional<Placement> findBestPlacement(TetrisGame game) {
+    Block activeBlock = game.getActiveBlock();
+    if (activeBlock == null) {
+      return Optional.empty();
+    }
+    return findBestPlacement(game.copyBoard(), activeBlock.getType(), activeBlock.getOrientation(), activeBlock.getRow(), activeBlock.getColumn());
+  }
+
+  /**
+   * @return The highest scoring placement of a block starting at the given state, or empty if the block doesn't fit
+   *         there. Ties go to the placement found first, which is the one with the fewest inputs.
+   */
+  public Optional<Placement> findBestPlacement(Board board, BlockType type, int orientation, int row, int column) {
+    Placement best = null;
+    for (Placement placement : findPlacements(board, type, orientation, row, column)) {
+      if (best == null || placement.getScore() > best.getScore()) {
+        best = placement;
+      }
+    }
+    return Optional.ofNullable(best);
+  }
+
+  /**
+   * @return Every distinct placement of a block starting at the given state, in order of how many inputs they need, or
+   *         an empty list if the block doesn't fit there
+   */
+  public List<Placement> findPlacements(Board board, BlockType type, int orientation, int row, int column) {
+    int landingCount = search(board, type, orientation, row, column);
+    if (landingCount == 0) {
+      return Collections.emptyList();
+    }
+
+    List<Placement> placements = new ArrayList<>(landingCount);
+    for (int i = 0; i < landingCount; i++) {
+      int landing = landings[i];
+      int landingOrientation = orientationOf(landing);
+      int landingRow = rowOf(landing);
+      int landingColumn = columnOf(landing);
+
+      BlockShape shape = type.getShape(landingOrientation);
+      int linesCleared = board.countCompletedRows(shape, landingRow, landingColumn);
+
+      // Without a line clear the resulting hash follows from the shape's squares, so a cached score needs no board copy
+      Board resultingBoard = null;
+      long resultingHash;
+      if (linesCleared == 0) {
+        resultingHash = board.getZobristHashWith(shape, landingRow, landingColumn);
+      } else {
+        resultingBoard = Placement.lockedCopy(board, type, landingOrientation, landingRow, landingColumn);
+        resultingHash = resultingBoard.getZobristHash();
+      }
+
+      double boardScore = table == null ? Double.NaN : table.get(resultingHash);
+      if (Double.isNaN(boardScore)) {
+        if (resultingBoard == null) {
+          resultingBoard = Placement.lockedCopy(board, type, landingOrientation, landingRow, landingColumn);
+        }
+        boardScore = evaluator.evaluateBoard(resultingBoard);
+        if (table != null) {
+          table.put(resultingHash, boardScore);
+        }
+      }
+
+      double score = boardScore + evaluator.scoreLines(linesCleared);
+      placements.add(new Placement(type, landingOrientation, landingRow, landingColumn, buildInputs(landingSources[landing]),
+        board, resultingBoard, resultingHash, linesCleared, score));
+    }
+    return placements;
+  }
+
+  /** @return Number of distinct landings found, which are written to the start of {@link #landings} */
+  private int search(Board board, BlockType type, int startOrientation, int startRow, int startColumn) {
+    prepareBuffers(board);
+
+    if (!board.fits(type.getShape(startOrientation), startRow, startColumn)) {
+      return 0;
+    }
+
+    int start = stateOf(startOrientation, startRow, startColumn);
+    visitStamps[start] = stamp;
+    parents[start] = -1;
+
+    int head = 0, tail = 0, landingCount = 0;
+    queue[tail++] = start;
+
+    while (head < tail) {
+      int state = queue[head++];
+      int orientation = orientationOf(state);
+      int row = rowOf(state);
+      int column = columnOf(state);
+
+      int landingRow = row + board.getDropDistance(type.getShape(orientation), row, column);
+      int landing = stateOf(orientation, landingRow, column);
+      if (landingStamps[landing] != stamp) {
+        landingStamps[landing] = stamp;
+        landingSources[landing] = state;
+        landings[landingCount++] = landing;
+      }
+
+      for (int move = 0; move < MOVES.length; move++) {
+        int nextOrientation = orientation, nextRow = row, nextColumn = column;
+        switch (MOVES[move]) {
+          case MOVE_LEFT -> nextColumn--;
+          case MOVE_RIGHT -> nextColumn++;
+          case MOVE_DOWN -> nextRow++;
+          case ROTATE_CLOCKWISE -> nextOrientation = Block.rotateOrientation(orientation, Rotation.CLOCKWISE);
+          case ROTATE_COUNTER_CLOCKWISE -> nextOrientation = Block.rotateOrientation(orientation, Rotation.COUNTER_CLOCKWISE);
+          default -> throw new IllegalStateException("Unexpected search move " + MOVES[move]);
+        }
+
+        if (!board.fits(type.getShape(nextOrientation), nextRow, nextColumn)) {
+          continue;
+        }
+
+        int next = stateOf(nextOrientation, nextRow, nextColumn);
+        if (visitStamps[next] != stamp) {
+          visitStamps[next] = stamp;
+          parents[next] = state;
+          parentMoves[next] = (byte) move;
+          queue[tail++] = next;
+        }
+      }
+    }
+
+    return landingCount;
+  }
+
+  private List<GameInput> buildInputs(int sourceState) {
+    int length = 1;
+    for (int state = sourceState; parents[state] != -1; state = parents[state]) {
+      length++;
+    }
+
+    GameInput[] inputs = new GameInput[length];
+    inputs[length - 1] = GameInput.DROP;
+    int index = length - 2;
+    for (int state = sourceState; parents[state] != -1; state = parents[state]) {
+      inputs[index--] = MOVES[parentMoves[state]];
+    }
+    return List.of(inputs);
+  }
+
+  private void prepareBuffers(Board board) {
+    int requiredRowSpan = board.getRows() + 2 * MARGIN;
+    int requiredColumnSpan = board.getColumns() + 2 * MARGIN;
+
+    if (requiredRowSpan != rowSpan || requiredColumnSpan != columnSpan) {
+      rowSpan = requiredRowSpan;
+      columnSpan = requiredColumnSpan;
+
+      int states = ORIENTATIONS * rowSpan * columnSpan;
+      visitStamps = new int[states];
+      landingStamps = new int[states];
+      parents = new int[states];
+      landingSources = new int[states];
+      parentMoves = new byte[states];
+      queue = new int[states];
+      landings = new int[states];
+      stamp = 0;
+    }
+
+    if (++stamp == 0) { // Stamp wrapped around, so old stamps could collide with new ones
+      Arrays.fill(visitStamps, 0);
+      Arrays.fill(landingStamps, 0);
+      stamp = 1;
+    }
+  }
+
+  private int stateOf(int orientation, int row, int column) {
+    return (orientation * rowSpan + row + MARGIN) * columnSpan + column + MARGIN;
+  }
+
+  private int orientationOf(int state) {
+    return state / (rowSpan * columnSpan);
+  }
+
+  private int rowOf(int state) {
+    return (state / columnSpan) % rowSpan - MARGIN;
+  }
+
+  private int columnOf(int state) {
+    return state % columnSpan - MARGIN;
+  }
+
+  private static int findMaxSquareOffset() {
+    int maxOffset = 0;
+    for (BlockType type : BlockType.values()) {
+      for (int orientation = 0; orientation < ORIENTATIONS; orientation++) {
+        BlockShape shape = type.getShape(orientation);
+        for (int square = 0; square < shape.getSquareCount(); square++) {
+          maxOffset = Math.max(maxOffset, Math.abs(shape.getRowOffset(square)));
+          maxOffset = Math.max(maxOffset, Math.abs(shape.getColumnOffset(square)));
+        }
+      }
+    }
+    return maxOffset;
+  }
+
+}
@@ -0,0 +1,62 @@
+package com.github.tylersharpe.tetris.ai;
+
+import com.github.tylersharpe.tetris.GameInput;
+
+import java.util.List;
+
+/**
+ * The move chosen by the {@link BeamSearchPlanner} for the current block, along with how far ahead the planner managed
+ * to look before choosing it
+ */
+public class Plan {
+
+  private final List<GameInput> inputs;
+  private final double score;
+  private final int depthReached;
+  private final int nodesExpanded;
+  private final boolean budgetExpired;
+
+  Plan(List<GameInput> inputs, double score, int depthReached, int nodesExpanded, boolean budgetExpired) {
+    this.inputs = inputs;
+    this.score = score;
+    this.depthReached = depthReached;
+    this.nodesExpanded = nodesExpanded;
+    this.budgetExpired = budgetExpired;
+  }
+
+  /** @return Inputs which play the current block, possibly starting with a hold or release, ending with a DROP */
+  public List<GameInput> getInputs() {
+    return inputs;
+  }
+
+  /** @return Evaluation of the best board found at the deepest completed level of the search */
+  public double getScore() {
+    return score;
+  }
+
+  /** @return Number of blocks placed along the best line of play that was fully searched */
+  public int getDepthReached() {
+    return depthReached;
+  }
+
+  public int getNodesExpanded() {
+    return nodesExpanded;
+  }
+
+  /** @return Whether the time budget ran out before the configured depth was reached */
+  public boolean isBudgetExpired() {
+    return budgetExpired;
+  }
+
+  @Override
+  public String toString() {
+    return "Plan(" +
+            "inputs=" + inputs +
+            ", score=" + score +
+            ", depthReached=" + depthReached +
+            ", nodesExpanded=" + nodesExpanded +
+            ", budgetExpired=" + budgetExpired +
+            ')';
+  }
+
+}
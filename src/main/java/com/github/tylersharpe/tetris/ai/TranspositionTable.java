@@ -0,0 +1,113 @@
+package com.github.tylersharpe.tetris.ai;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, lock-free cache of board evaluations keyed by Zobrist hash, shared by every search thread. Entries are stored
+ * as a pair of longs, the key XORed with the value and the value itself, so an entry torn by two threads writing it at
+ * once fails validation and reads as a miss rather than returning another board's score.
+ *
+ * <p>The table is two-way set associative. A new entry goes into the first slot of its set, moving the previous
+ * occupant into the second slot, so recently stored boards survive and the older of the two is the one evicted.
+ *
+ * <p>Scores depend on the evaluator's weights, so a table must only be shared between searches using the same ones.
+ */
+public class TranspositionTable {
+
+  private static final int WAYS = 2;
+  private static final int LONGS_PER_ENTRY = 2;
+
+  private final long[] entries; // [key ^ value, value] per slot, WAYS slots per set
+  private final int setMask;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /** @param capacity Minimum number of evaluations to hold; rounded up to a power of two */
+  public TranspositionTable(int capacity) {
+    if (capacity < WAYS || capacity > (1 << 28)) {
+      throw new IllegalArgumentException("Capacity must be between " + WAYS + " and " + (1 << 28));
+    }
+    int minimumSets = (capacity + WAYS - 1) / WAYS;
+    int sets = minimumSets == 1 ? 1 : Integer.highestOneBit(minimumSets - 1) << 1;
+    this.setMask = sets - 1;
+    this.entries = new long[sets * WAYS * LONGS_PER_ENTRY];
+  }
+
+  public int getCapacity() {
+    return entries.length / LONGS_PER_ENTRY;
+  }
+
+  /** @return The stored score for the given key, or {@link Double#NaN} if it isn't in the table */
+  public double get(long key) {
+    int slot = slotOf(key);
+    for (int way = 0; way < WAYS; way++, slot += LONGS_PER_ENTRY) {
+      long value = entries[slot + 1];
+      if ((entries[slot] ^ value) == key && value != 0) {
+        hits.increment();
+        return Double.longBitsToDouble(value);
+      }
+    }
+    misses.increment();
+    return Double.NaN;
+  }
+
+  public void put(long key, double score) {
+    long value = Double.doubleToRawLongBits(score);
+    if (value == 0) {
+      value = Double.doubleToRawLongBits(-0.0); // All-zero slots mean empty, and +0.0 and -0.0 score the same
+    }
+
+    int slot = slotOf(key);
+    long firstValue = entries[slot + 1];
+    long firstKey = entries[slot] ^ firstValue;
+
+    if (firstValue != 0 && firstKey != key) {
+      if (entries[slot + LONGS_PER_ENTRY + 1] != 0) {
+        evictions.increment();
+      }
+      entries[slot + LONGS_PER_ENTRY] = entries[slot];
+      entries[slot + LONGS_PER_ENTRY + 1] = firstValue;
+    }
+    entries[slot] = key ^ value;
+    entries[slot + 1] = value;
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /** @return Number of stored evaluations pushed out of the table to make room for new ones */
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  /** @return Fraction of lookups which found a stored score, or 0 if there have been no lookups */
+  public double getHitRate() {
+    long hits = getHits();
+    long lookups = hits + getMisses();
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  public void resetStatistics() {
+    hits.reset();
+    misses.reset();
+    evictions.reset();
+  }
+
+  private int slotOf(long key) {
+    // Low bits of the key pick the set; the Zobrist mix makes them as random as the high bits
+    return ((int) key & setMask) * WAYS * LONGS_PER_ENTRY;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("TranspositionTable(capacity=%d, hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d)",
+      getCapacity(), getHits(), getMisses(), getHitRate() * 100, getEvictions());
+  }
+
+}
@@ -0,0 +1,82 @@
+package com.github.tylersharpe.tetris.ai;
+
+import com.github.tylersharpe.tetris.Difficulty;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Stores tuned evaluation weights, one human-readable properties file per difficulty, kept separately for games with and
+ * without the special block types. Setups which have never been tuned fall back to {@link EvaluationWeights#DEFAULT}.
+ */
+public class WeightsRepository {
+
+  private static final Path SAVE_DIRECTORY = Paths.get(System.getProperty("user.home"), ".config", "tetris-ai-weights");
+
+  private final Path directory;
+
+  public WeightsRepository() {
+    this(SAVE_DIRECTORY);
+  }
+
+  public WeightsRepository(Path directory) {
+    this.directory = directory;
+  }
+
+  /** @param specialBlocks Whether to load the weights trained with the special block types enabled */
+  public EvaluationWeights load(Difficulty difficulty, boolean specialBlocks) throws IOException {
+    Path path = getWeightsPath(difficulty, specialBlocks);
+    if (!Files.exists(path)) {
+      return EvaluationWeights.DEFAULT;
+    }
+
+    Properties properties = new Properties();
+    try (var reader = Files.newBufferedReader(path)) {
+      properties.load(reader);
+    }
+
+    double[] weights = new double[Feature.values().length];
+    for (Feature feature : Feature.values()) {
+      String value = properties.getProperty(feature.name());
+      if (value == null) {
+        throw new IOException("Weights file " + path + " is missing a weight for " + feature);
+      }
+      try {
+        weights[feature.ordinal()] = Double.parseDouble(value);
+      } catch (NumberFormatException e) {
+        throw new IOException("Malformed weight for " + feature + " in " + path, e);
+      }
+    }
+    return new EvaluationWeights(weights);
+  }
+
+  public void save(Difficulty difficulty, boolean specialBlocks, EvaluationWeights weights, String comment) throws IOException {
+    Files.createDirectories(directory);
+
+    Properties properties = new Properties();
+    for (Feature feature : Feature.values()) {
+      properties.setProperty(feature.name(), Double.toString(weights.get(feature)));
+    }
+
+    try (var writer = Files.newBufferedWriter(getWeightsPath(difficulty, specialBlocks))) {
+      properties.store(writer, comment);
+    }
+  }
+
+  /** @return Where training progress for the given difficulty and block set is checkpointed */
+  public Path getCheckpointPath(Difficulty difficulty, boolean specialBlocks) {
+    return directory.resolve(getBaseName(difficulty, specialBlocks) + ".checkpoint");
+  }
+
+  private Path getWeightsPath(Difficulty difficulty, boolean specialBlocks) {
+    return directory.resolve(getBaseName(difficulty, specialBlocks) + ".properties");
+  }
+
+  private static String getBaseName(Difficulty difficulty, boolean specialBlocks) {
+    return difficulty.name().toLowerCase() + (specialBlocks ? "-specials" : "");
+  }
+
+}
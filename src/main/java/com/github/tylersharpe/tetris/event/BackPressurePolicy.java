@@ -0,0 +1,26 @@
+package com.github.tylersharpe.tetris.event;
+
+/**
+ * What an asynchronous {@link Broker} does when an event is published while its queue is full. The dropping policies
+ * only ever discard {@linkplain TetrisEvent#isDroppable() droppable} events: other events make room by discarding the
+ * oldest droppable event queued, or wait for room if there is none.
+ */
+public enum BackPressurePolicy {
+
+  /** Waits for the dispatcher to make room. Only suitable when publishers never run on the dispatcher's thread */
+  BLOCK,
+
+  /** Discards the event being published */
+  DROP_NEWEST,
+
+  /** Discards the oldest queued droppable event to make room */
+  DROP_OLDEST,
+
+  /**
+   * Dispatches the queued events on the publishing thread to make room, so that no event is lost or reordered. Not
+   * suitable for dispatchers confined to one thread, such as the Swing event thread, whose listeners would then run
+   * elsewhere
+   */
+  CALLER_DRAINS
+
+}
@@ -1,28 +1,468 @@
 package com.github.tylersharpe.tetris.event;
 
+import com.github.tylersharpe.tetris.metrics.LatencyHistogram;
+
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.EnumMap;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Consumer;
 
 /**
- * Dead simple synchronous, in-process message broker
+ * Dead simple in-process message broker. By default events are dispatched synchronously, inside {@link #publish}.
+ * In asynchronous mode they're put on a bounded queue instead, which is drained by a dispatcher such as a dedicated
+ * thread or the Swing event thread, so publishers don't wait for listeners. Events are always dispatched one at a time,
+ * in the order they were published.
+ * <p>
+ * Events with an int payload can be published and received without boxing, through {@link #publish(TetrisEvent, int)}
+ * and {@link IntEventListener}s. Those listeners are notified before the event's object listeners, which receive the
+ * payload boxed. Synchronous dispatch of int events allocates nothing.
+ * <p>
+ * While metrics are enabled, the broker times every event and every listener's handling of it, and logs any listener
+ * slower than a threshold. Subscribers can be given names so that the numbers say which listener is which.
  */
 public class Broker {
 
-  private final Map<TetrisEvent, Collection<Consumer<Object>>> subscribers = new EnumMap<>(TetrisEvent.class);
+  private static final TetrisEvent[] EVENTS = TetrisEvent.values();
+  private static final System.Logger LOGGER = System.getLogger(Broker.class.getName());
+  private static final long DEFAULT_SLOW_LISTENER_THRESHOLD_NANOS = 16_000_000; // About a frame
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  // Indexed by event ordinal. The arrays are replaced rather than mutated, and published through atomic slots, so
+  // dispatch sees every update in full without locking. The metrics arrays parallel the subscriber arrays, and are
+  // replaced before them, so a dispatch which sees a listener also sees its metrics
+  private final AtomicReferenceArray<IntEventListener[]> intSubscribers = new AtomicReferenceArray<>(EVENTS.length);
+  private final AtomicReferenceArray<Consumer<Object>[]> subscribers = new AtomicReferenceArray<>(EVENTS.length);
+  private final AtomicReferenceArray<ListenerMetrics[]> intListenerMetrics = new AtomicReferenceArray<>(EVENTS.length);
+  private final AtomicReferenceArray<ListenerMetrics[]> listenerMetrics = new AtomicReferenceArray<>(EVENTS.length);
+
+  private volatile boolean metricsEnabled;
+  private volatile long slowListenerThresholdNanos = DEFAULT_SLOW_LISTENER_THRESHOLD_NANOS;
+  private final LatencyHistogram[] eventLatencies = new LatencyHistogram[EVENTS.length]; // Time to notify every listener
+
+  // Asynchronous dispatch; the dispatcher is null in synchronous mode
+  private volatile Executor dispatcher;
+  private ExecutorService dedicatedDispatcher; // Set if the dispatcher is a thread owned by this broker
+  private volatile BlockingQueue<PendingEvent> pendingEvents; // Null in synchronous mode
+  private BackPressurePolicy backPressurePolicy;
+  private final AtomicBoolean drainScheduled = new AtomicBoolean();
+  private final AtomicLong droppedEvents = new AtomicLong();
+  private final Object drainLock = new Object();
+  private volatile Thread drainingThread; // Only written while holding drainLock
+
+  public Broker() {
+    for (int ordinal = 0; ordinal < EVENTS.length; ordinal++) {
+      intSubscribers.set(ordinal, new IntEventListener[0]);
+      subscribers.set(ordinal, noSubscribers());
+      intListenerMetrics.set(ordinal, new ListenerMetrics[0]);
+      listenerMetrics.set(ordinal, new ListenerMetrics[0]);
+      eventLatencies[ordinal] = new LatencyHistogram();
+    }
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Consumer<Object>[] noSubscribers() {
+    return new Consumer[0];
+  }
 
   public void publish(TetrisEvent event) {
     publish(event, null);
   }
 
+  /** Int listeners receive the payload if it's an Integer, or 0 otherwise */
   public void publish(TetrisEvent event, Object eventData) {
-    subscribers.computeIfAbsent(event, __ -> new ArrayList<>()).forEach(listener -> listener.accept(eventData));
+    if (!hasSubscribers(event)) {
+      return;
+    }
+
+    int intData = eventData instanceof Integer ? (Integer) eventData : 0;
+    Executor dispatcher = this.dispatcher;
+    if (dispatcher == null) {
+      dispatch(event, eventData, intData, false);
+    } else {
+      enqueue(new PendingEvent(event, eventData, intData, false));
+      scheduleDrain(dispatcher);
+    }
+  }
+
+  public void publish(TetrisEvent event, int eventData) {
+    if (!hasSubscribers(event)) {
+      return;
+    }
+
+    Executor dispatcher = this.dispatcher;
+    if (dispatcher == null) {
+      dispatch(event, null, eventData, true);
+    } else {
+      enqueue(new PendingEvent(event, null, eventData, true));
+      scheduleDrain(dispatcher);
+    }
   }
 
   public void subscribe(TetrisEvent event, Consumer<Object> listener) {
-    subscribers.computeIfAbsent(event, __ -> new ArrayList<>()).add(listener);
+    subscribe(event, null, listener);
+  }
+
+  /** @param name Identifies the listener in metrics and slow listener warnings */
+  public synchronized void subscribe(TetrisEvent event, String name, Consumer<Object> listener) {
+    int ordinal = event.ordinal();
+    listenerMetrics.set(ordinal, append(listenerMetrics.get(ordinal), new ListenerMetrics(event, nameOrDefault(event, name))));
+
+    Consumer<Object>[] listeners = subscribers.get(ordinal);
+    listeners = Arrays.copyOf(listeners, listeners.length + 1);
+    listeners[listeners.length - 1] = listener;
+    subscribers.set(ordinal, listeners);
+  }
+
+  public void subscribeInt(TetrisEvent event, IntEventListener listener) {
+    subscribeInt(event, null, listener);
+  }
+
+  /** @param name Identifies the listener in metrics and slow listener warnings */
+  public synchronized void subscribeInt(TetrisEvent event, String name, IntEventListener listener) {
+    int ordinal = event.ordinal();
+    intListenerMetrics.set(ordinal, append(intListenerMetrics.get(ordinal), new ListenerMetrics(event, nameOrDefault(event, name))));
+
+    IntEventListener[] listeners = intSubscribers.get(ordinal);
+    listeners = Arrays.copyOf(listeners, listeners.length + 1);
+    listeners[listeners.length - 1] = listener;
+    intSubscribers.set(ordinal, listeners);
+  }
+
+  private String nameOrDefault(TetrisEvent event, String name) {
+    if (name != null) {
+      return name;
+    }
+    int subscriberNumber = subscribers.get(event.ordinal()).length + intSubscribers.get(event.ordinal()).length + 1;
+    return event + " listener " + subscriberNumber;
+  }
+
+  private static ListenerMetrics[] append(ListenerMetrics[] metrics, ListenerMetrics newMetrics) {
+    metrics = Arrays.copyOf(metrics, metrics.length + 1);
+    metrics[metrics.length - 1] = newMetrics;
+    return metrics;
+  }
+
+  private boolean hasSubscribers(TetrisEvent event) {
+    return subscribers.get(event.ordinal()).length > 0 || intSubscribers.get(event.ordinal()).length > 0;
+  }
+
+  private void scheduleDrain(Executor dispatcher) {
+    if (drainScheduled.compareAndSet(false, true)) {
+      dispatcher.execute(() -> {
+        drainScheduled.set(false); // Anything published from here on schedules another drain
+        drain();
+      });
+    }
+  }
+
+  /**
+   * Switches to asynchronous dispatch, with events queued until the given executor drains them. The executor must run
+   * tasks one at a time, e.g. {@code SwingUtilities::invokeLater}. Modes should only be switched while nothing is being
+   * published.
+   *
+   * @param capacity Maximum number of events waiting to be dispatched
+   * @param backPressurePolicy What to do with events published while the queue is full
+   */
+  public synchronized void dispatchAsynchronously(Executor dispatcher, int capacity, BackPressurePolicy backPressurePolicy) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Queue capacity must be positive");
+    }
+
+    dispatchSynchronously();
+    this.pendingEvents = new ArrayBlockingQueue<>(capacity);
+    this.backPressurePolicy = backPressurePolicy;
+    this.dispatcher = dispatcher;
+  }
+
+  /** Switches to asynchronous dispatch from a dedicated daemon thread owned by this broker */
+  public synchronized void dispatchOnDedicatedThread(int capacity, BackPressurePolicy backPressurePolicy) {
+    ExecutorService thread = Executors.newSingleThreadExecutor(task -> {
+      Thread dispatcherThread = new Thread(task, "event-dispatcher");
+      dispatcherThread.setDaemon(true);
+      return dispatcherThread;
+    });
+    dispatchAsynchronously(thread, capacity, backPressurePolicy);
+    this.dedicatedDispatcher = thread;
+  }
+
+  /** Switches back to synchronous dispatch, first dispatching any queued events on the calling thread */
+  public synchronized void dispatchSynchronously() {
+    if (dispatcher == null) {
+      return;
+    }
+
+    // Cleared before the final drain, so a publish racing the switch either lands in time for it or sees the queue gone
+    // and delivers its event itself
+    dispatcher = null;
+    BlockingQueue<PendingEvent> queue = pendingEvents;
+    pendingEvents = null;
+    drain(queue);
+    if (dedicatedDispatcher != null) {
+      dedicatedDispatcher.shutdown();
+      dedicatedDispatcher = null;
+    }
+  }
+
+  public boolean isAsynchronous() {
+    return dispatcher != null;
+  }
+
+  /**
+   * Dispatches every queued event on the calling thread, returning once they've all been delivered. Does nothing in
+   * synchronous mode.
+   */
+  public void flush() {
+    drain();
+  }
+
+  /** @return Number of events discarded because the queue was full */
+  public long getDroppedEventCount() {
+    return droppedEvents.get();
+  }
+
+  /** Turns timing of events and listeners on or off. Off by default, in which case dispatch isn't timed at all */
+  public void setMetricsEnabled(boolean metricsEnabled) {
+    this.metricsEnabled = metricsEnabled;
+  }
+
+  public boolean isMetricsEnabled() {
+    return metricsEnabled;
+  }
+
+  /** Listeners taking longer than this to handle an event are logged as warnings while metrics are enabled */
+  public void setSlowListenerThresholdMillis(double thresholdMillis) {
+    this.slowListenerThresholdNanos = (long) (thresholdMillis * NANOS_PER_MILLI);
+  }
+
+  /** @return Time taken to notify every listener of each dispatch of the given event */
+  public LatencyHistogram getEventLatency(TetrisEvent event) {
+    return eventLatencies[event.ordinal()];
+  }
+
+  /** @return Metrics of each of the given event's listeners, int listeners first */
+  public List<ListenerMetrics> getListenerMetrics(TetrisEvent event) {
+    List<ListenerMetrics> metrics = new ArrayList<>(Arrays.asList(intListenerMetrics.get(event.ordinal())));
+    metrics.addAll(Arrays.asList(listenerMetrics.get(event.ordinal())));
+    return metrics;
+  }
+
+  public void resetMetrics() {
+    for (TetrisEvent event : EVENTS) {
+      eventLatencies[event.ordinal()].reset();
+      getListenerMetrics(event).forEach(metrics -> metrics.getLatency().reset());
+    }
+  }
+
+  /** @return A report of the metrics of every event which has been dispatched, and of each of its listeners */
+  public String formatMetrics() {
+    StringBuilder report = new StringBuilder("Event dispatch metrics:");
+    for (TetrisEvent event : EVENTS) {
+      LatencyHistogram eventLatency = getEventLatency(event);
+      if (eventLatency.getCount() == 0) {
+        continue;
+      }
+
+      report.append(System.lineSeparator()).append(event).append(": ").append(eventLatency);
+      for (ListenerMetrics metrics : getListenerMetrics(event)) {
+        report.append(System.lineSeparator()).append("  ").append(metrics);
+      }
+    }
+    return report.toString();
+  }
+
+  private void enqueue(PendingEvent pendingEvent) {
+    BlockingQueue<PendingEvent> queue = pendingEvents;
+    if (queue == null) {
+      // Switched to synchronous mode since the dispatcher was read
+      dispatch(pendingEvent.event, pendingEvent.eventData, pendingEvent.intData, pendingEvent.hasIntData);
+      return;
+    }
+
+    switch (backPressurePolicy) {
+      case BLOCK -> put(queue, pendingEvent);
+      case DROP_NEWEST -> {
+        if (!queue.offer(pendingEvent)) {
+          if (pendingEvent.event.isDroppable()) {
+            droppedEvents.incrementAndGet();
+          } else {
+            putUndroppable(queue, pendingEvent);
+          }
+        }
+      }
+      case DROP_OLDEST -> {
+        if (!queue.offer(pendingEvent)) {
+          if (pendingEvent.event.isDroppable()) {
+            offerDroppable(queue, pendingEvent);
+          } else {
+            putUndroppable(queue, pendingEvent);
+          }
+        }
+      }
+      case CALLER_DRAINS -> {
+        while (!queue.offer(pendingEvent)) {
+          drain(queue);
+        }
+      }
+    }
+
+    if (queue != pendingEvents) {
+      drain(queue); // Switched to synchronous mode after the queue was drained for the last time, so deliver it here
+    }
+  }
+
+  /** Waits for room in the queue, or makes room itself if it's the thread which drains the queue */
+  private void put(BlockingQueue<PendingEvent> queue, PendingEvent pendingEvent) {
+    if (isDraining()) {
+      // A listener is publishing, so waiting for the dispatcher would wait on itself
+      while (!queue.offer(pendingEvent)) {
+        drain(queue);
+      }
+    } else {
+      try {
+        queue.put(pendingEvent);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        droppedEvents.incrementAndGet();
+      }
+    }
+  }
+
+  /** Makes room for a droppable event by discarding older droppable events, discarding the event itself if there are none */
+  private void offerDroppable(BlockingQueue<PendingEvent> queue, PendingEvent pendingEvent) {
+    while (!queue.offer(pendingEvent)) {
+      if (!dropOldestDroppable(queue)) {
+        droppedEvents.incrementAndGet();
+        return;
+      }
+    }
+  }
+
+  /** Makes room for an event which mustn't be discarded by discarding droppable events, or else waits for room */
+  private void putUndroppable(BlockingQueue<PendingEvent> queue, PendingEvent pendingEvent) {
+    while (!queue.offer(pendingEvent)) {
+      if (!dropOldestDroppable(queue)) {
+        put(queue, pendingEvent);
+        return;
+      }
+    }
+  }
+
+  /** @return Whether there was a droppable event queued to discard */
+  private boolean dropOldestDroppable(BlockingQueue<PendingEvent> queue) {
+    for (PendingEvent queuedEvent : queue) {
+      if (queuedEvent.event.isDroppable() && queue.remove(queuedEvent)) {
+        droppedEvents.incrementAndGet();
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isDraining() {
+    return drainingThread == Thread.currentThread();
+  }
+
+  private void drain() {
+    BlockingQueue<PendingEvent> queue = pendingEvents;
+    if (queue != null) {
+      drain(queue);
+    }
+  }
+
+  private void drain(BlockingQueue<PendingEvent> queue) {
+    synchronized (drainLock) {
+      Thread previousDrainingThread = drainingThread;
+      drainingThread = Thread.currentThread();
+      try {
+        PendingEvent pendingEvent;
+        while ((pendingEvent = queue.poll()) != null) {
+          try {
+            dispatch(pendingEvent.event, pendingEvent.eventData, pendingEvent.intData, pendingEvent.hasIntData);
+          } catch (RuntimeException e) {
+            e.printStackTrace(); // The publisher has moved on, so there's no one to throw to
+          }
+        }
+      } finally {
+        drainingThread = previousDrainingThread;
+      }
+    }
+  }
+
+  /** @param boxIntData Whether object listeners receive the boxed int data, rather than the object data */
+  private void dispatch(TetrisEvent event, Object eventData, int intData, boolean boxIntData) {
+    int ordinal = event.ordinal();
+    IntEventListener[] intListeners = intSubscribers.get(ordinal);
+    Consumer<Object>[] listeners = subscribers.get(ordinal);
+
+    if (metricsEnabled) {
+      dispatchMeasured(ordinal, intListeners, listeners, eventData, intData, boxIntData);
+      return;
+    }
+
+    for (int i = 0; i < intListeners.length; i++) {
+      intListeners[i].onEvent(intData);
+    }
+
+    if (listeners.length > 0) {
+      Object objectData = boxIntData ? (Object) intData : eventData; // Only boxed when someone wants an object
+      for (int i = 0; i < listeners.length; i++) {
+        listeners[i].accept(objectData);
+      }
+    }
+  }
+
+  private void dispatchMeasured(int ordinal, IntEventListener[] intListeners, Consumer<Object>[] listeners,
+                                Object eventData, int intData, boolean boxIntData) {
+    ListenerMetrics[] intMetrics = intListenerMetrics.get(ordinal);
+    ListenerMetrics[] metrics = listenerMetrics.get(ordinal);
+    long start = System.nanoTime(), listenerStart = start;
+
+    for (int i = 0; i < intListeners.length; i++) {
+      intListeners[i].onEvent(intData);
+      listenerStart = recordListener(intMetrics[i], listenerStart);
+    }
+
+    if (listeners.length > 0) {
+      Object objectData = boxIntData ? (Object) intData : eventData;
+      for (int i = 0; i < listeners.length; i++) {
+        listeners[i].accept(objectData);
+        listenerStart = recordListener(metrics[i], listenerStart);
+      }
+    }
+
+    eventLatencies[ordinal].record(listenerStart - start);
+  }
+
+  /** @return When the listener finished, which is when the next one starts */
+  private long recordListener(ListenerMetrics metrics, long listenerStart) {
+    long end = System.nanoTime();
+    long nanos = end - listenerStart;
+    metrics.getLatency().record(nanos);
+
+    if (nanos > slowListenerThresholdNanos) {
+      LOGGER.log(System.Logger.Level.WARNING, () -> String.format(
+        "Slow listener '%s' took %.3fms to handle %s", metrics.getName(), nanos / NANOS_PER_MILLI, metrics.getEvent()
+      ));
+    }
+    return end;
+  }
+
+  private static final class PendingEvent {
+    final TetrisEvent event;
+    final Object eventData;
+    final int intData;
+    final boolean hasIntData;
+
+    PendingEvent(TetrisEvent event, Object eventData, int intData, boolean hasIntData) {
+      this.event = event;
+      this.eventData = eventData;
+      this.intData = intData;
+      this.hasIntData = hasIntData;
+    }
   }
 
 }
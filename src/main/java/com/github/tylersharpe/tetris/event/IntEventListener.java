@@ -0,0 +1,11 @@
+package com.github.tylersharpe.tetris.event;
+
+/**
+ * Listener for events whose payload is an int, such as a score or level, which receives it without boxing
+ */
+@FunctionalInterface
+public interface IntEventListener {
+
+  void onEvent(int eventData);
+
+}
@@ -0,0 +1,36 @@
+package com.github.tylersharpe.tetris.event;
+
+import com.github.tylersharpe.tetris.metrics.LatencyHistogram;
+
+/**
+ * How long one subscriber took to handle each event it received, recorded while a {@link Broker}'s metrics are enabled
+ */
+public final class ListenerMetrics {
+
+  private final TetrisEvent event;
+  private final String name;
+  private final LatencyHistogram latency = new LatencyHistogram();
+
+  ListenerMetrics(TetrisEvent event, String name) {
+    this.event = event;
+    this.name = name;
+  }
+
+  public TetrisEvent getEvent() {
+    return event;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public LatencyHistogram getLatency() {
+    return latency;
+  }
+
+  @Override
+  public String toString() {
+    return name + ": " + latency;
+  }
+
+}
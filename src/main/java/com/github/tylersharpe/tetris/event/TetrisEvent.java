@@ -1,10 +1,25 @@
 package com.github.tylersharpe.tetris.event;
 
 public enum TetrisEvent {
-  SPAWN_FAIL,
-  TIME_ATTACK_FAIL,
-  GAME_WON,
-  LINES_CLEARED,
-  LEVEL_CHANGED,
-  SCORE_CHANGED
+  SPAWN_FAIL(false),
+  TIME_ATTACK_FAIL(false),
+  GAME_WON(false),
+  LINES_CLEARED(true),
+  LEVEL_CHANGED(false),
+  SCORE_CHANGED(true),
+  TIME_CHANGED(true);
+
+  private final boolean droppable;
+
+  TetrisEvent(boolean droppable) {
+    this.droppable = droppable;
+  }
+
+  /**
+   * @return Whether an asynchronous {@link Broker} may discard this event when its queue is full. Events which end the
+   *         game or change its level never are, since listeners couldn't tell they had been missed
+   */
+  public boolean isDroppable() {
+    return droppable;
+  }
 }
\ No newline at end of file
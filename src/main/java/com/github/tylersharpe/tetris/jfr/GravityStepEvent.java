@@ -0,0 +1,21 @@
+package com.github.tylersharpe.tetris.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * The active block moving down a row, or locking into place if it can't, along with the line clears and spawn that follow
+ */
+@Name("com.github.tylersharpe.tetris.GravityStep")
+@Label("Gravity Step")
+@Category({"Tetris", "Engine"})
+@StackTrace(false)
+public class GravityStepEvent extends Event {
+
+  @Label("Level")
+  public int level;
+
+  @Label("Locked")
+  @Description("Whether the block couldn't move down, and was locked into the board")
+  public boolean locked;
+
+}
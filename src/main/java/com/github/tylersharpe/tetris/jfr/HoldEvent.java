@@ -0,0 +1,25 @@
+package com.github.tylersharpe.tetris.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * The player moving the active block into the hold slot or releasing the held block, including the sound it plays
+ */
+@Name("com.github.tylersharpe.tetris.Hold")
+@Label("Hold")
+@Category({"Tetris", "Input"})
+@StackTrace(false)
+public class HoldEvent extends Event {
+
+  @Label("Release")
+  @Description("Whether the held block was released, rather than the active block held")
+  public boolean release;
+
+  @Label("Applied")
+  @Description("False if the game didn't allow it")
+  public boolean applied;
+
+  @Label("Block Type")
+  public String blockType;
+
+}
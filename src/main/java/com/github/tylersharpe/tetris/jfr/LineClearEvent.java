@@ -0,0 +1,24 @@
+package com.github.tylersharpe.tetris.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Removal of the complete rows under a block which just locked
+ */
+@Name("com.github.tylersharpe.tetris.LineClear")
+@Label("Line Clear")
+@Category({"Tetris", "Engine"})
+@StackTrace(false)
+public class LineClearEvent extends Event {
+
+  @Label("Lines Cleared")
+  public int linesCleared;
+
+  @Label("Rows Scanned")
+  @Description("Rows checked for completeness, which are those the locked block covers")
+  public int rowsScanned;
+
+  @Label("Level")
+  public int level;
+
+}
@@ -0,0 +1,20 @@
+package com.github.tylersharpe.tetris.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * One paint of a grid of squares, such as the board or a block preview
+ */
+@Name("com.github.tylersharpe.tetris.Paint")
+@Label("Paint")
+@Category({"Tetris", "Rendering"})
+@StackTrace(false)
+public class PaintEvent extends Event {
+
+  @Label("Component")
+  public String component;
+
+  @Label("Squares Painted")
+  public int squaresPainted;
+
+}
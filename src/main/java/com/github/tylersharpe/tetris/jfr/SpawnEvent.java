@@ -0,0 +1,27 @@
+package com.github.tylersharpe.tetris.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * A block entering the board, or failing to, which ends the game
+ */
+@Name("com.github.tylersharpe.tetris.Spawn")
+@Label("Spawn")
+@Category({"Tetris", "Engine"})
+@StackTrace(false)
+public class SpawnEvent extends Event {
+
+  @Label("Block Type")
+  public String blockType;
+
+  @Label("Row")
+  public int row;
+
+  @Label("Spawned")
+  @Description("False if the block had no room, ending the game")
+  public boolean spawned;
+
+  @Label("Level")
+  public int level;
+
+}
@@ -0,0 +1,99 @@
+package com.github.tylersharpe.tetris.metrics;
+
+/**
+ * Latencies along the path from the game loop and the player's keyboard to the painted board, for telling loop
+ * wake-up delays, slow game logic and slow painting apart. Off by default; nothing is recorded until it's enabled.
+ */
+public class GameLoopMetrics {
+
+  private static final long NANOS_PER_MILLI = 1_000_000;
+
+  private volatile boolean enabled;
+  private volatile long unpaintedChangeNanos; // When the oldest model change not yet painted happened, or 0 if none
+
+  private final LatencyHistogram loopLateness = new LatencyHistogram();
+  private final LatencyHistogram gravityLateness = new LatencyHistogram();
+  private final LatencyHistogram gravityStep = new LatencyHistogram();
+  private final LatencyHistogram inputToModel = new LatencyHistogram();
+  private final LatencyHistogram modelToPaint = new LatencyHistogram();
+  private final LatencyHistogram boardPaint = new LatencyHistogram();
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /** @return How much later than scheduled the game loop woke up, for each simulation step or frame */
+  public LatencyHistogram getLoopLateness() {
+    return loopLateness;
+  }
+
+  /** @return How far behind the wall clock each gravity step was applied, at millisecond resolution */
+  public LatencyHistogram getGravityLateness() {
+    return gravityLateness;
+  }
+
+  /** @return Time spent moving the active block down a row, including locking it, clearing lines and spawning */
+  public LatencyHistogram getGravityStep() {
+    return gravityStep;
+  }
+
+  /** @return Time from a key press to the game having applied it, at millisecond resolution */
+  public LatencyHistogram getInputToModel() {
+    return inputToModel;
+  }
+
+  /** @return Time from a change to the game to the board being painted with it */
+  public LatencyHistogram getModelToPaint() {
+    return modelToPaint;
+  }
+
+  /** @return Time spent painting the board */
+  public LatencyHistogram getBoardPaint() {
+    return boardPaint;
+  }
+
+  public void recordMillis(LatencyHistogram histogram, long millis) {
+    histogram.record(millis * NANOS_PER_MILLI);
+  }
+
+  /** Notes that the game changed, for {@link #getModelToPaint()}. Changes before the next paint count as the first */
+  public void markModelChanged() {
+    if (enabled && unpaintedChangeNanos == 0) {
+      unpaintedChangeNanos = System.nanoTime();
+    }
+  }
+
+  /** Notes that the board was painted as of the given time, completing the latency of the oldest unpainted change */
+  public void markPainted(long paintStartNanos) {
+    long changeNanos = unpaintedChangeNanos;
+    if (changeNanos != 0) {
+      unpaintedChangeNanos = 0;
+      modelToPaint.record(paintStartNanos - changeNanos);
+    }
+  }
+
+  public void reset() {
+    loopLateness.reset();
+    gravityLateness.reset();
+    gravityStep.reset();
+    inputToModel.reset();
+    modelToPaint.reset();
+    boardPaint.reset();
+  }
+
+  public String format() {
+    String separator = System.lineSeparator();
+    return "Game loop metrics:" + separator +
+           "loop lateness: " + loopLateness + separator +
+           "gravity lateness: " + gravityLateness + separator +
+           "gravity step: " + gravityStep + separator +
+           "input to model: " + inputToModel + separator +
+           "model to paint: " + modelToPaint + separator +
+           "board paint: " + boardPaint;
+  }
+
+}
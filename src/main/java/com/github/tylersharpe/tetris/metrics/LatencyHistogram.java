@@ -0,0 +1,132 @@
+package com.github.tylersharpe.tetris.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations in nanoseconds, with fixed buckets in the style of HdrHistogram: each power of two
+ * is split into {@value #SUB_BUCKETS} equal buckets, so any recorded value is known to within 12.5% using a few KB for
+ * the whole range of a long. Recording never allocates, and can happen from any number of threads at once.
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+  private static final double NANOS_PER_MICRO = 1_000.0;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final AtomicLong totalNanos = new AtomicLong();
+  private final AtomicLong maxNanos = new AtomicLong();
+
+  public void record(long nanos) {
+    if (nanos < 0) {
+      nanos = 0; // nanoTime() isn't guaranteed monotonic across cores on every platform
+    }
+
+    counts.incrementAndGet(bucketOf(nanos));
+    totalNanos.addAndGet(nanos);
+
+    long max = maxNanos.get();
+    while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+      max = maxNanos.get();
+    }
+  }
+
+  public long getCount() {
+    long count = 0;
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      count += counts.get(bucket);
+    }
+    return count;
+  }
+
+  public long getTotalNanos() {
+    return totalNanos.get();
+  }
+
+  public long getMaxNanos() {
+    return maxNanos.get();
+  }
+
+  public double getMeanNanos() {
+    long count = getCount();
+    return count == 0 ? 0 : (double) totalNanos.get() / count;
+  }
+
+  /**
+   * @param percentile Between 0 and 100
+   * @return Upper bound of the bucket holding the value at the given percentile, or 0 if nothing was recorded
+   */
+  public long getValueAtPercentile(double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("Percentile must be between 0 and 100");
+    }
+
+    long[] snapshot = new long[BUCKETS];
+    long count = 0;
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      snapshot[bucket] = counts.get(bucket);
+      count += snapshot[bucket];
+    }
+    if (count == 0) {
+      return 0;
+    }
+
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+    long seen = 0;
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      seen += snapshot[bucket];
+      if (seen >= rank) {
+        return Math.min(upperBoundOf(bucket), maxNanos.get());
+      }
+    }
+    return maxNanos.get();
+  }
+
+  /** Forgets everything recorded so far. Values recorded concurrently may or may not survive */
+  public void reset() {
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      counts.set(bucket, 0);
+    }
+    totalNanos.set(0);
+    maxNanos.set(0);
+  }
+
+  // Values below SUB_BUCKETS get a bucket each; above that, the top SUB_BUCKET_BITS + 1 bits pick the bucket
+  static int bucketOf(long nanos) {
+    if (nanos < SUB_BUCKETS) {
+      return (int) nanos;
+    }
+    int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+    int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  static long lowerBoundOf(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    long subBucket = bucket % SUB_BUCKETS;
+    return (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+  }
+
+  static long upperBoundOf(int bucket) {
+    return bucket == BUCKETS - 1 ? Long.MAX_VALUE : lowerBoundOf(bucket + 1) - 1;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+      "count=%d, mean=%.1fus, p50=%.1fus, p99=%.1fus, p99.9=%.1fus, max=%.1fus",
+      getCount(),
+      getMeanNanos() / NANOS_PER_MICRO,
+      getValueAtPercentile(50) / NANOS_PER_MICRO,
+      getValueAtPercentile(99) / NANOS_PER_MICRO,
+      getValueAtPercentile(99.9) / NANOS_PER_MICRO,
+      getMaxNanos() / NANOS_PER_MICRO
+    );
+  }
+
+}
@@ -0,0 +1,129 @@
+package com.github.tylersharpe.tetris.replay;
+
+import com.github.tylersharpe.tetris.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A recorded game: everything needed to set up an identical game, plus every input applied to it and the simulated
+ * time at which it was applied. Because games are deterministic given their seed and settings, replaying the inputs at
+ * the same times reproduces the game exactly.
+ */
+public final class Replay {
+
+  private static final GameInput[] INPUTS = GameInput.values();
+
+  public final long seed;
+  public final int rows, columns; // Board dimensions
+  public final Difficulty difficulty;
+  public final Randomizer randomizer;
+  public final boolean timeAttack;
+  public final Map<BlockType, Integer> spawnWeights; // Every enabled block type and the weight it was dealt with
+
+  // Outcome of the recorded game
+  public final int score, linesCleared, level;
+  public final long elapsedMillis;
+  public final boolean won;
+
+  private final long[] inputTimes; // Simulated milliseconds since the game started
+  private final byte[] inputs;     // GameInput ordinals
+
+  Replay(long seed, int rows, int columns, Difficulty difficulty, Randomizer randomizer, boolean timeAttack, Map<BlockType, Integer> spawnWeights,
+         int score, int linesCleared, int level, long elapsedMillis, boolean won, long[] inputTimes, byte[] inputs) {
+    this.seed = seed;
+    this.rows = rows;
+    this.columns = columns;
+    this.difficulty = difficulty;
+    this.randomizer = randomizer;
+    this.timeAttack = timeAttack;
+    this.spawnWeights = Collections.unmodifiableMap(new EnumMap<>(spawnWeights));
+    this.score = score;
+    this.linesCleared = linesCleared;
+    this.level = level;
+    this.elapsedMillis = elapsedMillis;
+    this.won = won;
+    this.inputTimes = inputTimes;
+    this.inputs = inputs;
+  }
+
+  public int getInputCount() {
+    return inputs.length;
+  }
+
+  public GameInput getInput(int index) {
+    return INPUTS[inputs[index]];
+  }
+
+  /** @return Simulated milliseconds into the game at which the given input was applied */
+  public long getInputTime(int index) {
+    return inputTimes[index];
+  }
+
+  /**
+   * Configures the given game with this replay's settings and starts it from this replay's seed. The game must have the
+   * same board dimensions as the recorded one.
+   */
+  public void startGame(TetrisGame game) {
+    if (game.getRows() != rows || game.getColumns() != columns) {
+      throw new IllegalArgumentException("Replay of a " + rows + "x" + columns + " game can't be played on a " + game.getRows() + "x" + game.getColumns() + " board");
+    }
+
+    game.setDifficulty(difficulty);
+    game.setTimeAttack(timeAttack);
+
+    BlockConveyor conveyor = game.getConveyor();
+    conveyor.setRandomizer(randomizer);
+    for (BlockType type : BlockType.values()) {
+      Integer spawnWeight = spawnWeights.get(type);
+      if (spawnWeight == null) {
+        conveyor.disableBlockType(type);
+      } else {
+        conveyor.enableBlockType(type, spawnWeight);
+      }
+    }
+
+    game.reset(seed);
+  }
+
+  /** Writes this replay in its compact binary format. Doesn't close the stream */
+  public void writeTo(OutputStream outputStream) throws IOException {
+    ReplayFormat.write(this, outputStream);
+  }
+
+  public static Replay readFrom(InputStream inputStream) throws IOException {
+    return ReplayFormat.read(inputStream);
+  }
+
+  long[] getInputTimes() {
+    return inputTimes;
+  }
+
+  byte[] getInputOrdinals() {
+    return inputs;
+  }
+
+  @Override
+  public String toString() {
+    return "Replay(" +
+            "seed=" + seed +
+            ", rows=" + rows +
+            ", columns=" + columns +
+            ", difficulty=" + difficulty +
+            ", randomizer=" + randomizer +
+            ", timeAttack=" + timeAttack +
+            ", spawnWeights=" + spawnWeights +
+            ", score=" + score +
+            ", linesCleared=" + linesCleared +
+            ", level=" + level +
+            ", elapsedMillis=" + elapsedMillis +
+            ", won=" + won +
+            ", inputs=" + inputs.length +
+            ')';
+  }
+
+}
@@ -0,0 +1,131 @@
+package com.github.tylersharpe.tetris.replay;
+
+import com.github.tylersharpe.tetris.BlockType;
+import com.github.tylersharpe.tetris.Difficulty;
+import com.github.tylersharpe.tetris.GameInput;
+import com.github.tylersharpe.tetris.Randomizer;
+import com.github.tylersharpe.tetris.TetrisGame;
+import com.github.tylersharpe.tetris.Varints;
+
+import java.io.*;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Binary encoding of a {@link Replay}. After a short header of settings and outcome, each input takes a single unsigned
+ * varint holding the milliseconds since the previous input shifted left past the input's ordinal. Any input less than
+ * a second after the previous one takes at most two bytes, so a full game is a few KB.
+ *
+ * <pre>
+ * magic "TRPL", version byte
+ * seed (8 bytes), difficulty, randomizer, flags byte (bit 0 = time attack), rows, columns
+ * enabled type count, then (type ordinal, spawn weight) per enabled type
+ * score, lines cleared, level, elapsed millis, won byte
+ * input count, then ((millis since previous input &lt;&lt; 4) | input ordinal) per input
+ * </pre>
+ *
+ * All numbers other than the seed are unsigned varints. Version 1 replays have no board dimensions, as they were all
+ * played on the standard board.
+ */
+final class ReplayFormat {
+
+  private static final int MAGIC = 0x5452504C; // "TRPL"
+  private static final int VERSION = 2;
+  private static final int INPUT_BITS = 4;
+  private static final int TIME_ATTACK_FLAG = 1;
+
+  static {
+    if (GameInput.values().length > 1 << INPUT_BITS) {
+      throw new ExceptionInInitializerError("Game inputs no longer fit in " + INPUT_BITS + " bits");
+    }
+  }
+
+  private ReplayFormat() {
+  }
+
+  static void write(Replay replay, OutputStream outputStream) throws IOException {
+    var out = new DataOutputStream(new BufferedOutputStream(outputStream));
+
+    out.writeInt(MAGIC);
+    out.writeByte(VERSION);
+
+    out.writeLong(replay.seed);
+    Varints.writeUnsigned(out, replay.difficulty.ordinal());
+    Varints.writeUnsigned(out, replay.randomizer.ordinal());
+    out.writeByte(replay.timeAttack ? TIME_ATTACK_FLAG : 0);
+    Varints.writeUnsigned(out, replay.rows);
+    Varints.writeUnsigned(out, replay.columns);
+
+    Varints.writeUnsigned(out, replay.spawnWeights.size());
+    for (Map.Entry<BlockType, Integer> entry : replay.spawnWeights.entrySet()) {
+      Varints.writeUnsigned(out, entry.getKey().ordinal());
+      Varints.writeUnsigned(out, entry.getValue());
+    }
+
+    Varints.writeUnsigned(out, replay.score);
+    Varints.writeUnsigned(out, replay.linesCleared);
+    Varints.writeUnsigned(out, replay.level);
+    Varints.writeUnsigned(out, replay.elapsedMillis);
+    out.writeBoolean(replay.won);
+
+    long[] inputTimes = replay.getInputTimes();
+    byte[] inputs = replay.getInputOrdinals();
+    Varints.writeUnsigned(out, inputs.length);
+    long previousTime = 0;
+    for (int i = 0; i < inputs.length; i++) {
+      Varints.writeUnsigned(out, (inputTimes[i] - previousTime) << INPUT_BITS | inputs[i]);
+      previousTime = inputTimes[i];
+    }
+
+    out.flush();
+  }
+
+  static Replay read(InputStream inputStream) throws IOException {
+    var in = new DataInputStream(new BufferedInputStream(inputStream));
+
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not a replay file");
+    }
+    int version = in.readUnsignedByte();
+    if (version < 1 || version > VERSION) {
+      throw new IOException("Unsupported replay version " + version);
+    }
+
+    long seed = in.readLong();
+    Difficulty difficulty = Varints.readEnum(in, Difficulty.values());
+    Randomizer randomizer = Varints.readEnum(in, Randomizer.values());
+    boolean timeAttack = (in.readUnsignedByte() & TIME_ATTACK_FLAG) != 0;
+    int rows = version == 1 ? TetrisGame.VERTICAL_DIMENSION : (int) Varints.readUnsigned(in);
+    int columns = version == 1 ? TetrisGame.HORIZONTAL_DIMENSION : (int) Varints.readUnsigned(in);
+
+    int enabledTypes = (int) Varints.readUnsigned(in);
+    Map<BlockType, Integer> spawnWeights = new EnumMap<>(BlockType.class);
+    for (int i = 0; i < enabledTypes; i++) {
+      spawnWeights.put(Varints.readEnum(in, BlockType.values()), (int) Varints.readUnsigned(in));
+    }
+
+    int score = (int) Varints.readUnsigned(in);
+    int linesCleared = (int) Varints.readUnsigned(in);
+    int level = (int) Varints.readUnsigned(in);
+    long elapsedMillis = Varints.readUnsigned(in);
+    boolean won = in.readBoolean();
+
+    int inputCount = (int) Varints.readUnsigned(in);
+    long[] inputTimes = new long[inputCount];
+    byte[] inputs = new byte[inputCount];
+    long time = 0;
+    for (int i = 0; i < inputCount; i++) {
+      long encoded = Varints.readUnsigned(in);
+      int ordinal = (int) (encoded & ((1 << INPUT_BITS) - 1));
+      if (ordinal >= GameInput.values().length) {
+        throw new IOException("Malformed replay input " + ordinal);
+      }
+      time += encoded >>> INPUT_BITS;
+      inputTimes[i] = time;
+      inputs[i] = (byte) ordinal;
+    }
+
+    return new Replay(seed, rows, columns, difficulty, randomizer, timeAttack, spawnWeights, score, linesCleared, level, elapsedMillis, won, inputTimes, inputs);
+  }
+
+}
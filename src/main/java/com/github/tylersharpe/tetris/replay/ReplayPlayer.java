@@ -0,0 +1,132 @@
+package com.github.tylersharpe.tetris.replay;
+
+import com.github.tylersharpe.tetris.GameSnapshot;
+import com.github.tylersharpe.tetris.TetrisGame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Plays a replay back by re-simulating it on a game, which the caller can render as it goes. Playback is driven by
+ * {@link #advance}, in simulated milliseconds, so the caller decides the speed: real time, some multiple of it, or as
+ * fast as the CPU allows.
+ *
+ * <p>Whenever playback passes a keyframe interval, the player snapshots the whole game. Seeking restores the nearest
+ * keyframe before the target and only re-simulates from there, so any position can be reached in at most one interval
+ * of simulation once playback has been through it. Seeking past the furthest keyframe simulates forwards, capturing
+ * keyframes along the way.
+ */
+public class ReplayPlayer {
+
+  public static final long DEFAULT_KEYFRAME_INTERVAL_MILLIS = 5_000;
+
+  private final Replay replay;
+  private final TetrisGame game;
+  private final long keyframeIntervalMillis;
+  private final List<Keyframe> keyframes = new ArrayList<>(); // Keyframe N is at N intervals into the game
+  private long position; // Simulated milliseconds into the replay
+  private int nextInput;
+
+  public ReplayPlayer(Replay replay, TetrisGame game) {
+    this(replay, game, DEFAULT_KEYFRAME_INTERVAL_MILLIS);
+  }
+
+  /** Starts the given game from the beginning of the replay */
+  public ReplayPlayer(Replay replay, TetrisGame game, long keyframeIntervalMillis) {
+    if (keyframeIntervalMillis < 1) {
+      throw new IllegalArgumentException("Keyframe interval must be at least 1 millisecond");
+    }
+    this.replay = Objects.requireNonNull(replay, "'replay' cannot be null");
+    this.game = Objects.requireNonNull(game, "'game' cannot be null");
+    this.keyframeIntervalMillis = keyframeIntervalMillis;
+
+    replay.startGame(game);
+    keyframes.add(new Keyframe(game.snapshot(), 0));
+  }
+
+  public Replay getReplay() {
+    return replay;
+  }
+
+  public TetrisGame getGame() {
+    return game;
+  }
+
+  /** @return Simulated milliseconds into the replay */
+  public long getPosition() {
+    return position;
+  }
+
+  public long getDuration() {
+    return replay.elapsedMillis;
+  }
+
+  public boolean isFinished() {
+    return position >= replay.elapsedMillis;
+  }
+
+  /**
+   * Plays the given number of simulated milliseconds, applying every input recorded within them at the time it was
+   * originally applied. Stops at the end of the replay, so passing {@link Long#MAX_VALUE} plays to the end.
+   */
+  public void advance(long millis) {
+    if (millis < 0) {
+      throw new IllegalArgumentException("Cannot advance backwards; seek instead");
+    }
+
+    long target = millis >= replay.elapsedMillis - position ? replay.elapsedMillis : position + millis;
+    while (nextInput < replay.getInputCount() && replay.getInputTime(nextInput) <= target) {
+      tickTo(replay.getInputTime(nextInput));
+      game.apply(replay.getInput(nextInput));
+      nextInput++;
+    }
+    tickTo(target);
+  }
+
+  /** Moves playback to the given number of simulated milliseconds into the replay, in either direction */
+  public void seek(long targetPosition) {
+    long target = Math.max(0, Math.min(targetPosition, replay.elapsedMillis));
+
+    // Keep playing if the target is ahead and no keyframe would bring us closer
+    int keyframeIndex = (int) Math.min(target / keyframeIntervalMillis, keyframes.size() - 1);
+    if (target < position || keyframeIndex * keyframeIntervalMillis > position) {
+      Keyframe keyframe = keyframes.get(keyframeIndex);
+      game.restore(keyframe.snapshot);
+      position = keyframeIndex * keyframeIntervalMillis;
+      nextInput = keyframe.nextInput;
+    }
+
+    advance(target - position);
+  }
+
+  /** Ticks the game up to the given position, taking a keyframe at every interval boundary passed for the first time */
+  private void tickTo(long targetPosition) {
+    long nextKeyframe = keyframes.size() * keyframeIntervalMillis;
+    while (nextKeyframe <= targetPosition) {
+      if (nextKeyframe > position) {
+        game.tick(nextKeyframe - position);
+        position = nextKeyframe;
+      }
+      keyframes.add(new Keyframe(game.snapshot(), nextInput));
+      nextKeyframe += keyframeIntervalMillis;
+    }
+
+    game.tick(targetPosition - position);
+    position = targetPosition;
+  }
+
+  /** Game state at the start of an interval, before any input recorded at that exact time is applied */
+  private static final class Keyframe {
+
+    final GameSnapshot snapshot;
+    final int nextInput;
+
+    Keyframe(GameSnapshot snapshot, int nextInput) {
+      this.snapshot = snapshot;
+      this.nextInput = nextInput;
+    }
+
+  }
+
+}
@@ -0,0 +1,76 @@
+package com.github.tylersharpe.tetris.replay;
+
+import com.github.tylersharpe.tetris.BlockConveyor;
+import com.github.tylersharpe.tetris.BlockType;
+import com.github.tylersharpe.tetris.GameInput;
+import com.github.tylersharpe.tetris.TetrisGame;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Records a game as it is played. Recording an input only appends to a pair of primitive arrays, so it adds nothing
+ * noticeable to the input path; encoding happens once the replay is written out.
+ */
+public class ReplayRecorder {
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private TetrisGame game;
+  private long seed;
+  private Map<BlockType, Integer> spawnWeights;
+  private long[] inputTimes = new long[INITIAL_CAPACITY];
+  private byte[] inputs = new byte[INITIAL_CAPACITY];
+  private int inputCount;
+
+  /** Starts recording the given game, which must have just been reset */
+  public void start(TetrisGame game) {
+    this.game = game;
+    this.seed = game.getSeed();
+    this.inputCount = 0;
+
+    BlockConveyor conveyor = game.getConveyor();
+    this.spawnWeights = new EnumMap<>(BlockType.class);
+    for (BlockType type : BlockType.values()) {
+      if (conveyor.isEnabled(type)) {
+        spawnWeights.put(type, conveyor.getSpawnWeight(type));
+      }
+    }
+  }
+
+  public boolean isRecording() {
+    return game != null;
+  }
+
+  /** Records an input which is about to be applied to the game. Has no effect when not recording */
+  public void record(GameInput input) {
+    if (game == null) {
+      return;
+    }
+
+    if (inputCount == inputs.length) {
+      inputTimes = Arrays.copyOf(inputTimes, inputCount * 2);
+      inputs = Arrays.copyOf(inputs, inputCount * 2);
+    }
+    inputTimes[inputCount] = game.getElapsedMillis();
+    inputs[inputCount] = (byte) input.ordinal();
+    inputCount++;
+  }
+
+  /** Stops recording and captures the game's outcome */
+  public Replay finish() {
+    if (game == null) {
+      throw new IllegalStateException("Not recording");
+    }
+
+    Replay replay = new Replay(
+      seed, game.getRows(), game.getColumns(), game.getDifficulty(), game.getConveyor().getRandomizer(), game.isTimeAttack(), spawnWeights,
+      game.getScore(), game.getTotalLinesCleared(), game.getLevel(), game.getElapsedMillis(), game.isGameWon(),
+      Arrays.copyOf(inputTimes, inputCount), Arrays.copyOf(inputs, inputCount)
+    );
+    game = null;
+    return replay;
+  }
+
+}
@@ -0,0 +1,66 @@
+package com.github.tylersharpe.tetris.replay;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Stores replays as individual files, named after the player and score so they can be found without opening them
+ */
+public class ReplayRepository {
+
+  private static final Path SAVE_DIRECTORY = Paths.get(System.getProperty("user.home"), ".config", "tetris-replays");
+  public static final String EXTENSION = ".replay";
+
+  private final Path directory;
+
+  public ReplayRepository() {
+    this(SAVE_DIRECTORY);
+  }
+
+  public ReplayRepository(Path directory) {
+    this.directory = directory;
+  }
+
+  public Path getDirectory() {
+    return directory;
+  }
+
+  /** @return Where the replay was saved */
+  public Path save(Replay replay, String playerName) throws IOException {
+    Files.createDirectories(directory);
+
+    String safeName = playerName.replaceAll("[^A-Za-z0-9_-]", "_");
+    Path path = directory.resolve(safeName + "-" + replay.score + "-" + System.currentTimeMillis() + EXTENSION);
+
+    try (var outputStream = Files.newOutputStream(path)) {
+      replay.writeTo(outputStream);
+    }
+    return path;
+  }
+
+  public Replay load(Path path) throws IOException {
+    try (var inputStream = Files.newInputStream(path)) {
+      return Replay.readFrom(inputStream);
+    }
+  }
+
+  /** @return Paths of every saved replay, oldest first */
+  public List<Path> list() throws IOException {
+    if (!Files.isDirectory(directory)) {
+      return List.of();
+    }
+
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(path -> path.getFileName().toString().endsWith(EXTENSION))
+                  .sorted(Comparator.comparingLong(path -> path.toFile().lastModified()))
+                  .collect(Collectors.toList());
+    }
+  }
+
+}
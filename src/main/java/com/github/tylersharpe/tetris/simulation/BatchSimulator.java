@@ -0,0 +1,119 @@
+package com.github.tylersharpe.tetris.simulation;
+
+import com.github.tylersharpe.tetris.Block;
+import com.github.tylersharpe.tetris.BlockType;
+import com.github.tylersharpe.tetris.Difficulty;
+import com.github.tylersharpe.tetris.Randomizer;
+import com.github.tylersharpe.tetris.TetrisGame;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Plays batches of headless games in parallel, each from its own seed, and aggregates their results. Games share no
+ * mutable state, so throughput scales with the number of worker threads.
+ */
+public class BatchSimulator {
+
+  private final Difficulty difficulty;
+  private final MovePolicy policy;
+  private Collection<BlockType> specialBlockTypes = List.of();
+  private boolean timeAttack;
+  private Randomizer randomizer = Randomizer.WEIGHTED;
+  private int parallelism = Runtime.getRuntime().availableProcessors();
+  private Consumer<GameResult> resultListener = result -> {};
+
+  public BatchSimulator(Difficulty difficulty, MovePolicy policy) {
+    this.difficulty = Objects.requireNonNull(difficulty, "'difficulty' cannot be null");
+    this.policy = Objects.requireNonNull(policy, "'policy' cannot be null");
+  }
+
+  public void setSpecialBlockTypes(Collection<BlockType> specialBlockTypes) {
+    this.specialBlockTypes = List.copyOf(specialBlockTypes);
+  }
+
+  public void setTimeAttack(boolean timeAttack) {
+    this.timeAttack = timeAttack;
+  }
+
+  public void setRandomizer(Randomizer randomizer) {
+    this.randomizer = Objects.requireNonNull(randomizer, "'randomizer' cannot be null");
+  }
+
+  public void setParallelism(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism must be at least 1");
+    }
+    this.parallelism = parallelism;
+  }
+
+  /** Sets a listener which receives every game's result as soon as it finishes. Called concurrently from worker threads */
+  public void setResultListener(Consumer<GameResult> resultListener) {
+    this.resultListener = Objects.requireNonNull(resultListener, "'resultListener' cannot be null");
+  }
+
+  /**
+   * Plays the given number of games. Game N is seeded from a value derived from the base seed and N, so the same base
+   * seed always reproduces the same batch regardless of parallelism.
+   */
+  public SimulationReport run(int games, long baseSeed) {
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    long startNanos = System.nanoTime();
+
+    try {
+      SimulationStatistics statistics = pool.submit(() ->
+        IntStream.range(0, games)
+                 .parallel()
+                 .mapToObj(gameIndex -> {
+                   GameResult result = play(new SplittableRandom(baseSeed + gameIndex).nextLong());
+                   resultListener.accept(result);
+                   return result;
+                 })
+                 .collect(SimulationStatistics::new, SimulationStatistics::accept, SimulationStatistics::combine)
+      ).get();
+
+      return new SimulationReport(statistics, System.nanoTime() - startNanos, parallelism);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Simulation was interrupted", e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Simulation failed", e.getCause());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /** Plays a single game to completion as fast as possible */
+  public GameResult play(long seed) {
+    TetrisGame game = new TetrisGame();
+    game.setDifficulty(difficulty);
+    game.setTimeAttack(timeAttack);
+    game.getConveyor().setRandomizer(randomizer);
+    for (BlockType specialBlockType : specialBlockTypes) {
+      game.getConveyor().enableBlockType(difficulty, specialBlockType);
+    }
+    game.reset(seed);
+
+    SplittableRandom policyRandom = new SplittableRandom(~seed);
+    Block lastPlayedBlock = null;
+
+    while (game.isRunning()) {
+      Block activeBlock = game.getActiveBlock();
+      if (activeBlock != lastPlayedBlock) {
+        lastPlayedBlock = activeBlock;
+        policy.playBlock(game, policyRandom);
+      } else {
+        game.tick(game.getFallDelay());
+      }
+    }
+
+    return new GameResult(seed, game.getScore(), game.getTotalLinesCleared(), game.getLevel(), game.getBlocksPlaced(), game.getElapsedMillis(), game.isGameWon());
+  }
+
+}
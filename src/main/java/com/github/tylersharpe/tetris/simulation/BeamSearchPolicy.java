@@ -0,0 +1,31 @@
+package com.github.tylersharpe.tetris.simulation;
+
+import com.github.tylersharpe.tetris.GameInput;
+import com.github.tylersharpe.tetris.TetrisGame;
+import com.github.tylersharpe.tetris.ai.BeamSearchPlanner;
+
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Plays each block as planned by a {@link BeamSearchPlanner}. The planner works to a wall-clock budget, so results are
+ * only reproducible when the budget is generous enough that it never expires.
+ */
+public class BeamSearchPolicy implements MovePolicy {
+
+  private final BeamSearchPlanner planner;
+
+  public BeamSearchPolicy(BeamSearchPlanner planner) {
+    this.planner = Objects.requireNonNull(planner, "'planner' cannot be null");
+  }
+
+  @Override
+  public void playBlock(TetrisGame game, SplittableRandom random) {
+    planner.plan(game).ifPresent(plan -> {
+      for (GameInput input : plan.getInputs()) {
+        game.apply(input);
+      }
+    });
+  }
+
+}
@@ -0,0 +1,36 @@
+package com.github.tylersharpe.tetris.simulation;
+
+/**
+ * Outcome of a single headless game
+ */
+public class GameResult {
+
+  public final long seed;
+  public final int score, linesCleared, levelReached, blocksPlaced;
+  public final long durationMillis; // Simulated game time, not wall-clock time
+  public final boolean won;
+
+  public GameResult(long seed, int score, int linesCleared, int levelReached, int blocksPlaced, long durationMillis, boolean won) {
+    this.seed = seed;
+    this.score = score;
+    this.linesCleared = linesCleared;
+    this.levelReached = levelReached;
+    this.blocksPlaced = blocksPlaced;
+    this.durationMillis = durationMillis;
+    this.won = won;
+  }
+
+  @Override
+  public String toString() {
+    return "GameResult(" +
+            "seed=" + seed +
+            ", score=" + score +
+            ", linesCleared=" + linesCleared +
+            ", levelReached=" + levelReached +
+            ", blocksPlaced=" + blocksPlaced +
+            ", durationMillis=" + durationMillis +
+            ", won=" + won +
+            ')';
+  }
+
+}
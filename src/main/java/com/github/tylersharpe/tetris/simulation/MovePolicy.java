@@ -0,0 +1,20 @@
+package com.github.tylersharpe.tetris.simulation;
+
+import com.github.tylersharpe.tetris.TetrisGame;
+
+import java.util.SplittableRandom;
+
+/**
+ * Decides how each block is played in a headless game. A single policy instance is shared by every game in a batch, so
+ * implementations must be stateless or thread-safe; any per-game randomness should come from the supplied generator.
+ */
+@FunctionalInterface
+public interface MovePolicy {
+
+  /**
+   * Called once each time a new block becomes active. The policy may move, rotate, hold or drop the block through the
+   * game's public API. A block left in the air keeps falling under gravity.
+   */
+  void playBlock(TetrisGame game, SplittableRandom random);
+
+}
@@ -0,0 +1,37 @@
+package com.github.tylersharpe.tetris.simulation;
+
+import com.github.tylersharpe.tetris.GameInput;
+import com.github.tylersharpe.tetris.TetrisGame;
+import com.github.tylersharpe.tetris.ai.BoardEvaluator;
+import com.github.tylersharpe.tetris.ai.EvaluationWeights;
+import com.github.tylersharpe.tetris.ai.PlacementSearch;
+
+import java.util.SplittableRandom;
+
+/**
+ * Plays each block at the placement which the {@link PlacementSearch} scores highest. Each worker thread gets its own
+ * search, since searches reuse their buffers.
+ */
+public class PlacementSearchPolicy implements MovePolicy {
+
+  private final ThreadLocal<PlacementSearch> searches;
+
+  public PlacementSearchPolicy() {
+    this(EvaluationWeights.DEFAULT);
+  }
+
+  public PlacementSearchPolicy(EvaluationWeights weights) {
+    BoardEvaluator evaluator = new BoardEvaluator(weights);
+    this.searches = ThreadLocal.withInitial(() -> new PlacementSearch(evaluator));
+  }
+
+  @Override
+  public void playBlock(TetrisGame game, SplittableRandom random) {
+    searches.get().findBestPlacement(game).ifPresent(placement -> {
+      for (GameInput input : placement.getInputs()) {
+        game.apply(input);
+      }
+    });
+  }
+
+}
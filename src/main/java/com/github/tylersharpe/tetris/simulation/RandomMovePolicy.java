@@ -0,0 +1,34 @@
+package com.github.tylersharpe.tetris.simulation;
+
+import com.github.tylersharpe.tetris.Rotation;
+import com.github.tylersharpe.tetris.TetrisGame;
+
+import java.util.SplittableRandom;
+
+/**
+ * Baseline policy which rotates each block a random number of times, shifts it a random distance and drops it
+ */
+public class RandomMovePolicy implements MovePolicy {
+
+  @Override
+  public void playBlock(TetrisGame game, SplittableRandom random) {
+    int rotations = random.nextInt(4);
+    for (int i = 0; i < rotations; i++) {
+      game.rotateActiveBlock(Rotation.CLOCKWISE);
+    }
+
+    int maxShift = game.getColumns() / 2;
+    int shift = random.nextInt(-maxShift, maxShift + 1);
+    for (int i = 0; i < Math.abs(shift); i++) {
+      if (shift < 0) {
+        game.moveActiveBlockLeft();
+      } else {
+        game.moveActiveBlockRight();
+      }
+    }
+
+    game.dropCurrentBlock();
+    game.tryMoveActiveBlockDown();
+  }
+
+}
@@ -0,0 +1,63 @@
+package com.github.tylersharpe.tetris.simulation;
+
+import com.github.tylersharpe.tetris.BlockType;
+import com.github.tylersharpe.tetris.Difficulty;
+import com.github.tylersharpe.tetris.ai.BeamSearchPlanner;
+import com.github.tylersharpe.tetris.ai.BoardEvaluator;
+import com.github.tylersharpe.tetris.ai.EvaluationWeights;
+import com.github.tylersharpe.tetris.ai.WeightsRepository;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Command line entry point for batch simulations. Arguments, all optional and positional:
+ * <ol>
+ *   <li>Number of games (default 10,000)</li>
+ *   <li>Difficulty display name, e.g. 'Medium' (default Easy)</li>
+ *   <li>Base seed (default 0)</li>
+ *   <li>Worker threads (default: one per available processor)</li>
+ *   <li>Move policy, one of 'random', 'search' or 'beam' (default random). The AI policies use the weights trained
+ *   for the difficulty and block set, if any</li>
+ *   <li>'specials' to play with every special block type enabled (default: standard blocks only)</li>
+ * </ol>
+ */
+public class SimulationMain {
+
+  private static final long BEAM_TIME_BUDGET_MILLIS = 1000; // Generous, so that batches stay reproducible
+
+  public static void main(String[] args) throws IOException {
+    int games = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+    Difficulty difficulty = args.length > 1 ? Difficulty.fromDisplay(args[1]) : Difficulty.EASY;
+    long baseSeed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+
+    boolean specialBlocks = args.length > 5 && args[5].equalsIgnoreCase("specials");
+
+    MovePolicy policy = args.length > 4 ? parsePolicy(args[4], new WeightsRepository().load(difficulty, specialBlocks)) : new RandomMovePolicy();
+
+    BatchSimulator simulator = new BatchSimulator(difficulty, policy);
+    Collection<BlockType> specialBlockTypes = specialBlocks ? BlockType.getSpecialBlocks() : List.of();
+    simulator.setSpecialBlockTypes(specialBlockTypes);
+    if (args.length > 3) {
+      simulator.setParallelism(Integer.parseInt(args[3]));
+    }
+
+    System.out.println(simulator.run(games, baseSeed));
+  }
+
+  private static MovePolicy parsePolicy(String name, EvaluationWeights weights) {
+    return switch (name.toLowerCase()) {
+      case "random" -> new RandomMovePolicy();
+      case "search" -> new PlacementSearchPolicy(weights);
+      case "beam" -> {
+        BeamSearchPlanner planner = new BeamSearchPlanner(new BoardEvaluator(weights), ForkJoinPool.commonPool());
+        planner.setTimeBudgetMillis(BEAM_TIME_BUDGET_MILLIS);
+        yield new BeamSearchPolicy(planner);
+      }
+      default -> throw new IllegalArgumentException("Unknown move policy '" + name + "'");
+    };
+  }
+
+}
@@ -0,0 +1,38 @@
+package com.github.tylersharpe.tetris.simulation;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregate statistics of a batch run along with how long the batch took to play
+ */
+public class SimulationReport {
+
+  private final SimulationStatistics statistics;
+  private final long wallClockNanos;
+  private final int parallelism;
+
+  SimulationReport(SimulationStatistics statistics, long wallClockNanos, int parallelism) {
+    this.statistics = statistics;
+    this.wallClockNanos = wallClockNanos;
+    this.parallelism = parallelism;
+  }
+
+  public SimulationStatistics getStatistics() {
+    return statistics;
+  }
+
+  public long getWallClockMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(wallClockNanos);
+  }
+
+  public double getGamesPerSecond() {
+    return statistics.getGames() / (wallClockNanos / 1e9);
+  }
+
+  @Override
+  public String toString() {
+    return statistics + "\n" +
+           String.format("Throughput:     %.1f games/s over %d ms on %d threads", getGamesPerSecond(), getWallClockMillis(), parallelism);
+  }
+
+}
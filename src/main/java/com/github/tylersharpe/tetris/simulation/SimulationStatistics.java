@@ -0,0 +1,98 @@
+package com.github.tylersharpe.tetris.simulation;
+
+import com.github.tylersharpe.tetris.TetrisGame;
+
+import java.util.LongSummaryStatistics;
+
+/**
+ * Aggregates the results of many games. Not thread-safe; parallel runs accumulate one instance per worker and then
+ * {@link #combine(SimulationStatistics) combine} them.
+ */
+public class SimulationStatistics {
+
+  private long gamesWon;
+  private final long[] gamesPerLevelReached = new long[TetrisGame.MAX_LEVEL + 1];
+  private final LongSummaryStatistics score = new LongSummaryStatistics();
+  private final LongSummaryStatistics linesCleared = new LongSummaryStatistics();
+  private final LongSummaryStatistics levelReached = new LongSummaryStatistics();
+  private final LongSummaryStatistics blocksPlaced = new LongSummaryStatistics();
+  private final LongSummaryStatistics durationMillis = new LongSummaryStatistics();
+
+  public void accept(GameResult result) {
+    if (result.won) {
+      gamesWon++;
+    }
+    gamesPerLevelReached[result.levelReached]++;
+    score.accept(result.score);
+    linesCleared.accept(result.linesCleared);
+    levelReached.accept(result.levelReached);
+    blocksPlaced.accept(result.blocksPlaced);
+    durationMillis.accept(result.durationMillis);
+  }
+
+  public void combine(SimulationStatistics other) {
+    gamesWon += other.gamesWon;
+    for (int level = 0; level < gamesPerLevelReached.length; level++) {
+      gamesPerLevelReached[level] += other.gamesPerLevelReached[level];
+    }
+    score.combine(other.score);
+    linesCleared.combine(other.linesCleared);
+    levelReached.combine(other.levelReached);
+    blocksPlaced.combine(other.blocksPlaced);
+    durationMillis.combine(other.durationMillis);
+  }
+
+  public long getGames() {
+    return score.getCount();
+  }
+
+  public long getGamesWon() {
+    return gamesWon;
+  }
+
+  /** @return Number of games which ended on the given level */
+  public long getGamesEndingOnLevel(int level) {
+    return gamesPerLevelReached[level];
+  }
+
+  public LongSummaryStatistics getScore() {
+    return score;
+  }
+
+  public LongSummaryStatistics getLinesCleared() {
+    return linesCleared;
+  }
+
+  public LongSummaryStatistics getLevelReached() {
+    return levelReached;
+  }
+
+  public LongSummaryStatistics getBlocksPlaced() {
+    return blocksPlaced;
+  }
+
+  public LongSummaryStatistics getDurationMillis() {
+    return durationMillis;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder levels = new StringBuilder();
+    for (int level = 1; level < gamesPerLevelReached.length; level++) {
+      levels.append(level == 1 ? "" : ", ").append(level).append('=').append(gamesPerLevelReached[level]);
+    }
+
+    return "Games:          " + getGames() + " (" + gamesWon + " won)\n" +
+           "Score:          " + describe(score) + "\n" +
+           "Lines cleared:  " + describe(linesCleared) + "\n" +
+           "Level reached:  " + describe(levelReached) + "\n" +
+           "Blocks placed:  " + describe(blocksPlaced) + "\n" +
+           "Duration (ms):  " + describe(durationMillis) + "\n" +
+           "Final levels:   " + levels;
+  }
+
+  private static String describe(LongSummaryStatistics statistics) {
+    return String.format("avg %.2f, min %d, max %d", statistics.getAverage(), statistics.getMin(), statistics.getMax());
+  }
+
+}
@@ -13,8 +13,8 @@ class BlockDisplayPanel extends ColorGrid {
   public static final int DEFAULT_BLOCK_DIMENSION = 35;
   public static final int DEFAULT_BLOCK_PADDING = 15;
 
-  private static final int BLOCK_DISPLAY_PANEL_ROWS = 4;
-  private static final int BLOCK_DISPLAY_PANEL_COLUMNS = 5;
+  static final int BLOCK_DISPLAY_PANEL_ROWS = 4;
+  static final int BLOCK_DISPLAY_PANEL_COLUMNS = 5;
 
   private final Block displayedBlock;
 
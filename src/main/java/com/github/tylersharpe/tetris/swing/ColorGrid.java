@@ -1,6 +1,7 @@
 package com.github.tylersharpe.tetris.swing;
 
 import com.github.tylersharpe.tetris.ColoredSquare;
+import com.github.tylersharpe.tetris.jfr.PaintEvent;
 
 import javax.swing.*;
 import java.awt.*;
@@ -14,6 +15,7 @@ abstract class ColorGrid extends JPanel {
   private final int rows, columns;
   private final int padding;
   private final SquareStyle squareStyle;
+  private int squaresPainted; // During the current paint, for its JFR event
 
   ColorGrid(int rows, int columns, int cellDimension) {
     this(rows, columns, cellDimension, 0, SquareStyle.DEFAULT);
@@ -44,19 +46,41 @@ abstract class ColorGrid extends JPanel {
    */
   @Override
   protected void paintComponent(Graphics g) {
+    PaintEvent event = new PaintEvent();
+    event.begin();
+    squaresPainted = 0;
+
     super.paintComponent(g);
+    paintUnderlay(g);
 
     for (var square : getCurrentColors()) {
-      int squareX = getXCoordinate(square) + padding;
-      int squareY = getYCoordinate(square) + padding;
-      int width = getUnitWidth();
-      int height = getUnitHeight();
-
-      if (square.getColor() == null) {
-        squareStyle.paintGhost(g, squareX, squareY, width, height);
-      } else {
-        squareStyle.paintSquare(g, square.getColor(), squareX, squareY, width, height);
-      }
+      paintSquare(g, square);
+    }
+
+    if (event.shouldCommit()) {
+      event.component = (getClass().isAnonymousClass() ? getClass().getSuperclass() : getClass()).getSimpleName();
+      event.squaresPainted = squaresPainted;
+      event.commit();
+    }
+  }
+
+  /**
+   * Paints anything which belongs beneath the current colors. Does nothing by default
+   */
+  protected void paintUnderlay(Graphics g) {
+  }
+
+  protected void paintSquare(Graphics g, ColoredSquare square) {
+    squaresPainted++;
+    int squareX = getXCoordinate(square) + padding;
+    int squareY = getYCoordinate(square) + padding;
+    int width = getUnitWidth();
+    int height = getUnitHeight();
+
+    if (square.getColor() == null) {
+      squareStyle.paintGhost(g, squareX, squareY, width, height);
+    } else {
+      squareStyle.paintSquare(g, square.getColor(), squareX, squareY, width, height);
     }
   }
 
@@ -0,0 +1,159 @@
+package com.github.tylersharpe.tetris.swing;
+
+import com.github.tylersharpe.tetris.TetrisGame;
+import com.github.tylersharpe.tetris.metrics.GameLoopMetrics;
+
+import javax.swing.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Advances a {@link TetrisGame}'s simulated clock in step with the wall clock on a dedicated thread. Wall clock time is
+ * accumulated from {@link System#nanoTime()} and handed to the game in whole millisecond steps, so gameplay runs at
+ * exactly real time however long painting takes. After a stall every missed step is applied in order, which plays out
+ * the same as if none had been missed.
+ * <p>
+ * Between ticks the loop sleeps until the next gravity step, game clock second or frame is due, whichever is soonest,
+ * so an idle game costs a wake-up per frame rather than one per millisecond. Inputs can bring the next gravity step
+ * forward, so whoever applies one should {@link #wake()} the loop to reschedule.
+ * <p>
+ * Frames are rendered on the Swing event thread at their own rate, independently of the simulation. Gravity of any
+ * fraction of a cell per frame, or several cells per frame, follows from the game's fall delay. The game is ticked while
+ * holding its monitor, so anything else touching it while the loop is running must synchronize on it too.
+ */
+class FixedStepGameLoop {
+
+  private static final long STEP_NANOS = 1_000_000; // The resolution of the game's simulated clock
+  private static final long FRAME_INTERVAL_NANOS = 1_000_000_000 / 60;
+  private static final long MAX_CATCH_UP_NANOS = 5_000_000_000L; // Time lost beyond this, e.g. to the machine sleeping, is dropped
+
+  private final TetrisGame game;
+  private final Runnable onFrame;
+  private final AtomicBoolean framePending = new AtomicBoolean();
+  private final AtomicBoolean wakeRequested = new AtomicBoolean();
+
+  private volatile boolean running;
+  private volatile Thread thread;
+  private long tickedUpToNanos; // The wall clock time the game has been ticked up to. Guarded by the game's monitor
+
+  /**
+   * @param onFrame Called on the Swing event thread for every rendered frame. Frames are skipped rather than queued up
+   *                while the event thread is behind
+   */
+  FixedStepGameLoop(TetrisGame game, Runnable onFrame) {
+    this.game = game;
+    this.onFrame = onFrame;
+  }
+
+  void start() {
+    if (thread != null) {
+      return;
+    }
+    synchronized (game) {
+      tickedUpToNanos = System.nanoTime();
+    }
+    running = true;
+    thread = new Thread(this::run, "game-loop");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Stops the loop, waiting for any step in progress to finish unless called from the loop itself. The game is ticked
+   * up to the present first, so a paused game keeps its progress towards the next gravity step.
+   */
+  void stop() {
+    Thread loopThread = thread;
+    if (loopThread == null) {
+      return;
+    }
+    running = false;
+    LockSupport.unpark(loopThread);
+    if (loopThread != Thread.currentThread()) {
+      try {
+        loopThread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    thread = null;
+  }
+
+  /**
+   * Ticks the game up to the present while the loop is running, so an input is applied at the moment it happened rather
+   * than at the last gravity step or clock second. Must be called holding the game's monitor.
+   */
+  void catchUp() {
+    if (thread != null) {
+      tickUpToNow();
+    }
+  }
+
+  /** Has the loop work out when it's next due again, after something other than a tick changed the game */
+  void wake() {
+    Thread loopThread = thread;
+    if (loopThread != null) {
+      wakeRequested.set(true);
+      LockSupport.unpark(loopThread);
+    }
+  }
+
+  private void run() {
+    GameLoopMetrics loopMetrics = game.getLoopMetrics();
+    long startNanos = System.nanoTime();
+    long nextTickDueNanos = startNanos;
+    long nextFrameDueNanos = startNanos;
+    long nextWakeNanos = startNanos;
+
+    while (running) {
+      long now = System.nanoTime();
+      boolean woken = wakeRequested.getAndSet(false);
+      if (!woken && loopMetrics.isEnabled()) {
+        loopMetrics.getLoopLateness().record(now - nextWakeNanos);
+      }
+
+      if (woken || now - nextTickDueNanos >= 0) {
+        synchronized (game) {
+          tickUpToNow();
+          // At least one step ahead, so a gravity step already overdue is applied by the next tick rather than spun on
+          nextTickDueNanos = tickedUpToNanos + Math.max(1, game.getMillisUntilNextStep()) * STEP_NANOS;
+        }
+      }
+
+      if (now - nextFrameDueNanos >= 0) {
+        requestFrame();
+        nextFrameDueNanos = Math.max(nextFrameDueNanos + FRAME_INTERVAL_NANOS, now); // Skips frames missed during a stall
+      }
+
+      nextWakeNanos = nextTickDueNanos - nextFrameDueNanos < 0 ? nextTickDueNanos : nextFrameDueNanos;
+      LockSupport.parkNanos(nextWakeNanos - System.nanoTime());
+    }
+
+    synchronized (game) {
+      tickUpToNow();
+    }
+  }
+
+  /** Hands the game every whole step of wall clock time since it was last ticked */
+  private void tickUpToNow() {
+    long now = System.nanoTime();
+    long behindNanos = Math.min(now - tickedUpToNanos, MAX_CATCH_UP_NANOS);
+    long steps = behindNanos / STEP_NANOS;
+    if (steps > 0) {
+      tickedUpToNanos = now - (behindNanos - steps * STEP_NANOS);
+      if (game.tick(steps)) {
+        game.getLoopMetrics().markModelChanged(); // Frames painting an unchanged game aren't timed
+      }
+    }
+  }
+
+  private void requestFrame() {
+    if (framePending.compareAndSet(false, true)) {
+      SwingUtilities.invokeLater(() -> {
+        framePending.set(false);
+        onFrame.run();
+      });
+    }
+  }
+
+}
@@ -0,0 +1,153 @@
+package com.github.tylersharpe.tetris.swing;
+
+import com.github.tylersharpe.tetris.ColoredSquare;
+import com.github.tylersharpe.tetris.TetrisGame;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Collection;
+
+/**
+ * Renders the visible rows of a game's board, along with its active block and ghost squares. Persisted squares are kept
+ * in an image covering only the part of the board scrolled into view. It's redrawn just for the rows that changed since
+ * the last paint and the rows scrolled into view, so neither its memory nor the cost of a frame grows with the size of
+ * the board. The game is read while holding its monitor, so it can be painted while a {@link FixedStepGameLoop} is
+ * running it.
+ */
+class GameBoardGrid extends ColorGrid {
+
+  // Cells shrink from the default size down to this so that large boards mostly fit on screen
+  private static final int MIN_CELL_DIMENSION = 4;
+  private static final int MAX_PREFERRED_WIDTH = 1200, MAX_PREFERRED_HEIGHT = 900;
+
+  private final TetrisGame game;
+
+  // Persisted squares of the cells in view when last painted
+  private BufferedImage persistedImage;
+  private int imageTopRow, imageLeftColumn, imageRows, imageColumns, imageUnitWidth, imageUnitHeight;
+
+  GameBoardGrid(TetrisGame game) {
+    super(game.getRows() - TetrisGame.HIDDEN_ROWS, game.getColumns(), getCellDimension(game));
+    this.game = game;
+    setBorder(BorderFactory.createLineBorder(Color.GRAY, 1));
+  }
+
+  private static int getCellDimension(TetrisGame game) {
+    int visibleRows = game.getRows() - TetrisGame.HIDDEN_ROWS;
+    int fittingDimension = Math.min(MAX_PREFERRED_WIDTH / game.getColumns(), MAX_PREFERRED_HEIGHT / visibleRows);
+    return Math.max(MIN_CELL_DIMENSION, Math.min(BlockDisplayPanel.DEFAULT_BLOCK_DIMENSION, fittingDimension));
+  }
+
+  @Override
+  public Collection<ColoredSquare> getCurrentColors() {
+    synchronized (game) {
+      return game.getActiveSquares();
+    }
+  }
+
+  @Override
+  protected void paintUnderlay(Graphics g) {
+    int[] changedRows = game.takeChangedRows();
+    int unitWidth = getUnitWidth(), unitHeight = getUnitHeight();
+    if (unitWidth <= 0 || unitHeight <= 0) {
+      persistedImage = null; // The changes just taken weren't drawn, so start over once there's room to draw them
+      return;
+    }
+
+    Rectangle visibleRect = getVisibleRect();
+    int topRow = TetrisGame.HIDDEN_ROWS + visibleRect.y / unitHeight;
+    int bottomRow = Math.min(game.getRows() - 1, TetrisGame.HIDDEN_ROWS + (visibleRect.y + visibleRect.height - 1) / unitHeight);
+    int leftColumn = visibleRect.x / unitWidth;
+    int rightColumn = Math.min(game.getColumns() - 1, (visibleRect.x + visibleRect.width - 1) / unitWidth);
+    if (topRow > bottomRow || leftColumn > rightColumn) {
+      persistedImage = null;
+      return;
+    }
+
+    int rows = bottomRow - topRow + 1, columns = rightColumn - leftColumn + 1;
+    if (persistedImage == null || rows != imageRows || columns != imageColumns || leftColumn != imageLeftColumn ||
+        unitWidth != imageUnitWidth || unitHeight != imageUnitHeight) {
+      if (persistedImage == null || persistedImage.getWidth() != columns * unitWidth || persistedImage.getHeight() != rows * unitHeight) {
+        persistedImage = new BufferedImage(columns * unitWidth, rows * unitHeight, BufferedImage.TYPE_INT_ARGB);
+      }
+      imageTopRow = topRow;
+      imageLeftColumn = leftColumn;
+      imageRows = rows;
+      imageColumns = columns;
+      imageUnitWidth = unitWidth;
+      imageUnitHeight = unitHeight;
+      renderPersistedRows(topRow, bottomRow);
+    } else {
+      scrollPersistedImage(topRow);
+      renderPersistedRows(changedRows[0], changedRows[1]);
+    }
+
+    g.drawImage(persistedImage, leftColumn * unitWidth, (topRow - TetrisGame.HIDDEN_ROWS) * unitHeight, null);
+  }
+
+  /** Moves the image to start at the given row, keeping the rows still in view and rendering the ones scrolled into it */
+  private void scrollPersistedImage(int topRow) {
+    int shift = topRow - imageTopRow;
+    if (shift == 0) {
+      return;
+    }
+
+    imageTopRow = topRow;
+    if (Math.abs(shift) >= imageRows) {
+      renderPersistedRows(topRow, topRow + imageRows - 1);
+      return;
+    }
+
+    Graphics2D g = persistedImage.createGraphics();
+    try {
+      int keptHeight = (imageRows - Math.abs(shift)) * imageUnitHeight;
+      g.copyArea(0, Math.max(0, shift) * imageUnitHeight, persistedImage.getWidth(), keptHeight, 0, -shift * imageUnitHeight);
+    } finally {
+      g.dispose();
+    }
+
+    if (shift > 0) {
+      renderPersistedRows(topRow + imageRows - shift, topRow + imageRows - 1);
+    } else {
+      renderPersistedRows(topRow, topRow - shift - 1);
+    }
+  }
+
+  /** Redraws the given rows of the image, ignoring any outside of it */
+  private void renderPersistedRows(int fromRow, int toRow) {
+    fromRow = Math.max(fromRow, imageTopRow);
+    toRow = Math.min(toRow, imageTopRow + imageRows - 1);
+    if (fromRow > toRow) {
+      return;
+    }
+
+    Graphics2D g = persistedImage.createGraphics();
+    try {
+      g.setComposite(AlphaComposite.Clear);
+      g.fillRect(0, (fromRow - imageTopRow) * imageUnitHeight, persistedImage.getWidth(), (toRow - fromRow + 1) * imageUnitHeight);
+      g.setComposite(AlphaComposite.SrcOver);
+
+      // Squares are painted at their position in the whole grid, so shift them to the image's origin
+      g.translate(-imageLeftColumn * imageUnitWidth, -(imageTopRow - TetrisGame.HIDDEN_ROWS) * imageUnitHeight);
+
+      Collection<ColoredSquare> persistedSquares;
+      synchronized (game) {
+        persistedSquares = game.getPersistedSquares(fromRow, toRow);
+      }
+      for (ColoredSquare square : persistedSquares) {
+        if (square.getColumn() >= imageLeftColumn && square.getColumn() < imageLeftColumn + imageColumns) {
+          paintSquare(g, square);
+        }
+      }
+    } finally {
+      g.dispose();
+    }
+  }
+
+  @Override
+  protected int getYCoordinate(ColoredSquare square) {
+    return (square.getRow() - TetrisGame.HIDDEN_ROWS) * getUnitHeight(); // Adjusts for the invisible rows at top
+  }
+
+}
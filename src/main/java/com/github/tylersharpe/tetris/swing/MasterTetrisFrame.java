@@ -3,15 +3,25 @@ package com.github.tylersharpe.tetris.swing;
 import com.github.tylersharpe.tetris.*;
 import com.github.tylersharpe.tetris.audio.AudioFileNotFound;
 import com.github.tylersharpe.tetris.audio.TetrisAudioSystem;
+import com.github.tylersharpe.tetris.event.BackPressurePolicy;
 import com.github.tylersharpe.tetris.event.TetrisEvent;
+import com.github.tylersharpe.tetris.jfr.HoldEvent;
+import com.github.tylersharpe.tetris.metrics.GameLoopMetrics;
+import com.github.tylersharpe.tetris.replay.Replay;
+import com.github.tylersharpe.tetris.replay.ReplayRecorder;
+import com.github.tylersharpe.tetris.replay.ReplayRepository;
 
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
 import java.util.List;
 import java.util.*;
 import java.util.concurrent.ExecutorService;
@@ -27,19 +37,35 @@ public class MasterTetrisFrame extends JFrame {
   static final Font ARIAL_HEADER = new Font("Arial", Font.BOLD, 17);
   static final Font ARIAL_DESCRIPTION = new Font("Arial", Font.PLAIN, 13);
   private static final ExecutorService THREAD_POOL = Executors.newCachedThreadPool();
+  private static final int PREVIEW_DEPTH = 3;
+  private static final int EVENT_QUEUE_CAPACITY = 256;
+
+  // Run with -Dtetris.metrics=true to time event listeners and the game loop, and print the results on exit
+  private static final boolean METRICS_ENABLED = Boolean.getBoolean("tetris.metrics");
+  private static final String SLOW_LISTENER_MILLIS_PROPERTY = "tetris.slowListenerMillis";
+  private static final int MAX_VIEWPORT_WIDTH = 1000, MAX_VIEWPORT_HEIGHT = 800; // Larger boards scroll
 
   private TetrisAudioSystem audioSystem;
   private final TetrisGame game;
+  private final FixedStepGameLoop gameLoop;
   private final ScoreRepository scoreRepository = new ScoreRepository();
+  private final ReplayRepository replayRepository = new ReplayRepository();
+  private final SavedGameRepository savedGameRepository = new SavedGameRepository();
+  private final ReplayRecorder replayRecorder = new ReplayRecorder();
+  private Replay lastReplay; // Recording of the last finished game, or null if it wasn't recorded
 
   private final BoardPanel boardPanel;
   @SuppressWarnings("FieldCanBeLocal")
   private final BlockDisplayPanel nextBlockPanel;
+  @SuppressWarnings("FieldCanBeLocal")
+  private final UpcomingBlocksPanel upcomingBlocksPanel;
   private final BlockDisplayPanel holdPanel;
   private final MenuPanel menuPanel;
   private final SettingsPanel settingsPanel;
   private ScorePanel scorePanel;
 
+  private long keyPressedMillis; // When the key press being handled happened, for input latency metrics
+
   // Tracks progress of Asynchronous UI effects
   private Future<?> clearTask;
   private Future<?> flashLabelTask;
@@ -52,16 +78,17 @@ public class MasterTetrisFrame extends JFrame {
 
       int code = e.getKeyCode();
       pressedKeyCodes.add(code);
+      keyPressedMillis = e.getWhen();
 
       switch (code) {
 
         case KeyEvent.VK_LEFT:
 
           if (pressedKeyCodes.contains(KeyEvent.VK_S)) {
-            game.superSlideActiveBlockLeft();
+            applyInput(GameInput.SUPER_SLIDE_LEFT);
             audioSystem.playSuperSlideSound();
           } else {
-            game.moveActiveBlockLeft();
+            applyInput(GameInput.MOVE_LEFT);
           }
 
           break;
@@ -69,63 +96,47 @@ public class MasterTetrisFrame extends JFrame {
         case KeyEvent.VK_RIGHT:
 
           if (pressedKeyCodes.contains(KeyEvent.VK_S)) {
-            game.superSlideActiveBlockRight();
+            applyInput(GameInput.SUPER_SLIDE_RIGHT);
             audioSystem.playSuperSlideSound();
           } else {
-            game.moveActiveBlockRight();
+            applyInput(GameInput.MOVE_RIGHT);
           }
 
           break;
 
         case KeyEvent.VK_DOWN:
 
-          game.moveActiveBlockDown();
+          applyInput(GameInput.MOVE_DOWN);
           break;
 
         case KeyEvent.VK_UP:
 
-          if (game.rotateActiveBlock(Rotation.CLOCKWISE)) {
+          if (applyInput(GameInput.ROTATE_CLOCKWISE)) {
             audioSystem.playClockwiseRotationSound();
           }
           break;
 
         case KeyEvent.VK_F:
 
-          if (game.rotateActiveBlock(Rotation.COUNTER_CLOCKWISE)) {
+          if (applyInput(GameInput.ROTATE_COUNTER_CLOCKWISE)) {
             audioSystem.playCounterClockwiseRotationSound();
           }
           break;
 
         case KeyEvent.VK_D: // Hold set
 
-          Block activeBlock = game.getActiveBlock();
-
-          if (game.getHoldBlock().isEmpty() && !activeBlock.isHoldBlock()) {
-            activeBlock.tagAsHoldBlock();
-            audioSystem.playHoldSound();
-            game.setHoldBlock(activeBlock);
-            Block nextBlock = game.getConveyor().next();
-            game.spawn(nextBlock);
-          }
-
+          applyHoldInput(GameInput.HOLD);
           break;
 
         case KeyEvent.VK_E: // Hold release
 
-          if (game.getHoldBlock().isPresent()) {
-            Block heldPiece = game.getHoldBlock().get();
-            game.spawn(heldPiece);
-            game.clearHoldBlock();
-            audioSystem.playReleaseSound();
-          }
-
+          applyHoldInput(GameInput.RELEASE_HOLD);
           break;
 
         case KeyEvent.VK_SPACE:
 
-          game.dropCurrentBlock();
           audioSystem.playBlockPlacementSound();
-          game.tryMoveActiveBlockDown();
+          applyInput(GameInput.DROP);
           break;
       }
 
@@ -139,6 +150,11 @@ public class MasterTetrisFrame extends JFrame {
   };
 
   public MasterTetrisFrame() {
+    this(TetrisGame.VERTICAL_DIMENSION, TetrisGame.HORIZONTAL_DIMENSION);
+  }
+
+  /** Creates a frame whose board has the given dimensions, including the hidden rows at its top */
+  public MasterTetrisFrame(int rows, int columns) {
     try {
       this.audioSystem = TetrisAudioSystem.getInstance();
     } catch (AudioFileNotFound ex) {
@@ -146,57 +162,76 @@ public class MasterTetrisFrame extends JFrame {
       System.exit(1);
     }
 
-    this.game = new TetrisGame();
-    this.game.getFallTimer().setInitialDelay(0);
-    this.game.getFallTimer().addActionListener(e -> repaint());
+    this.game = new TetrisGame(rows, columns);
+    this.game.getConveyor().setPreviewDepth(PREVIEW_DEPTH);
+    // Listeners run on the event thread after the input or tick which raised their event, rather than inside it. Should
+    // the queue ever fill up, the oldest label refreshes and sounds are dropped rather than dispatched on the game loop's
+    // thread. Game over, win and level events are never dropped
+    this.game.dispatchAsynchronously(SwingUtilities::invokeLater, EVENT_QUEUE_CAPACITY, BackPressurePolicy.DROP_OLDEST);
+    this.gameLoop = new FixedStepGameLoop(game, this::onFrame);
+
+    if (METRICS_ENABLED) {
+      this.game.setMetricsEnabled(true);
+      this.game.getLoopMetrics().setEnabled(true);
+      Integer slowListenerMillis = Integer.getInteger(SLOW_LISTENER_MILLIS_PROPERTY);
+      if (slowListenerMillis != null) {
+        this.game.setSlowListenerThresholdMillis(slowListenerMillis);
+      }
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+        System.out.println(game.formatMetrics());
+        System.out.println(game.getLoopMetrics().format());
+      }));
+    }
 
-    this.game.getGameTimer().addActionListener(e -> {
+    this.game.subscribeInt(TetrisEvent.TIME_CHANGED, "time labels", time -> {
       scorePanel.timeLabel.repaint();
       scorePanel.timeProgressBar.repaint();
     });
 
     for (TetrisEvent gameOverEvent : List.of(TetrisEvent.SPAWN_FAIL, TetrisEvent.TIME_ATTACK_FAIL)) {
-      this.game.subscribe(gameOverEvent, e -> onGameOver());
+      this.game.subscribe(gameOverEvent, "game over", e -> onGameOver());
     }
-    this.game.subscribe(TetrisEvent.GAME_WON, e -> onWin());
+    this.game.subscribe(TetrisEvent.GAME_WON, "win", e -> onWin());
 
-    this.game.subscribe(TetrisEvent.LINES_CLEARED, event -> {
-      int lines = (int) event;
-
-      audioSystem.playClearLineSound(lines);
+    this.game.subscribeInt(TetrisEvent.LINES_CLEARED, "clear line sound", lines -> audioSystem.playClearLineSound(lines));
+    this.game.subscribeInt(TetrisEvent.LINES_CLEARED, "lines labels", lines -> {
       scorePanel.totalLinesLabel.repaint();
       scorePanel.linesClearedProgressBar.repaint();
     });
 
-    this.game.subscribe(TetrisEvent.LEVEL_CHANGED, event -> {
-      int newLevel = (int) event;
-
+    this.game.subscribeInt(TetrisEvent.LEVEL_CHANGED, "level labels", newLevel -> {
       scorePanel.levelLabel.setText("Level: " + newLevel);
       scorePanel.timeProgressBar.repaint();
-
-      audioSystem.startSoundtrack(newLevel);
-
+    });
+    this.game.subscribeInt(TetrisEvent.LEVEL_CHANGED, "level soundtrack", newLevel -> audioSystem.startSoundtrack(newLevel));
+    this.game.subscribeInt(TetrisEvent.LEVEL_CHANGED, "level flash", newLevel -> {
       if (newLevel > 1) {
         flashLabelTask = THREAD_POOL.submit(() -> scorePanel.levelLabel.flash(Color.YELLOW));
       }
     });
 
-    this.game.subscribe(TetrisEvent.SCORE_CHANGED, score -> scorePanel.scoreLabel.repaint());
+    this.game.subscribeInt(TetrisEvent.SCORE_CHANGED, "score label", score -> scorePanel.scoreLabel.repaint());
 
     this.boardPanel = new BoardPanel();
 
     this.nextBlockPanel = new BlockDisplayPanel("Next") {
       @Override
       public Collection<ColoredSquare> getCurrentColors() {
-        Block nextBlock = game.getConveyor().peek();
-        return nextBlock == null ? List.of() : nextBlock.getPreviewPanelSquares();
+        synchronized (game) {
+          Block nextBlock = game.getConveyor().peek();
+          return nextBlock == null ? List.of() : nextBlock.getPreviewPanelSquares();
+        }
       }
     };
 
+    this.upcomingBlocksPanel = new UpcomingBlocksPanel(game, PREVIEW_DEPTH - 1);
+
     this.holdPanel = new BlockDisplayPanel("Hold") {
       @Override
       public Collection<ColoredSquare> getCurrentColors() {
-        return game.getHoldBlock().map(Block::getPreviewPanelSquares).orElse(Collections.emptyList());
+        synchronized (game) {
+          return game.getHoldBlock().map(Block::getPreviewPanelSquares).orElse(Collections.emptyList());
+        }
       }
     };
 
@@ -238,10 +273,16 @@ public class MasterTetrisFrame extends JFrame {
     holdContainer.add(controlsPanel, BorderLayout.CENTER);
     add(holdContainer, BorderLayout.WEST);
 
-    add(boardPanel, BorderLayout.CENTER);
+    JScrollPane boardScrollPane = new JScrollPane(boardPanel);
+    boardScrollPane.setBorder(BorderFactory.createEmptyBorder());
+    add(boardScrollPane, BorderLayout.CENTER);
+
+    JPanel previewPanel = new JPanel(new BorderLayout());
+    previewPanel.add(nextBlockPanel, BorderLayout.NORTH);
+    previewPanel.add(SwingUtility.nestInPanel(upcomingBlocksPanel), BorderLayout.SOUTH);
 
     JPanel infoPanel = new JPanel(new BorderLayout());
-    infoPanel.add(nextBlockPanel, BorderLayout.NORTH);
+    infoPanel.add(previewPanel, BorderLayout.NORTH);
     infoPanel.add(scorePanel, BorderLayout.CENTER);
     infoPanel.add(settingsPanel, BorderLayout.SOUTH);
     add(infoPanel, BorderLayout.EAST);
@@ -253,20 +294,100 @@ public class MasterTetrisFrame extends JFrame {
     setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
 
     int masterWidth = (holdPanel.getColumns() * BlockDisplayPanel.DEFAULT_BLOCK_DIMENSION) +
-                      (boardPanel.getColumns() * BlockDisplayPanel.DEFAULT_BLOCK_DIMENSION) +
+                      boardScrollPane.getPreferredSize().width +
                       (nextBlockPanel.getColumns() * BlockDisplayPanel.DEFAULT_BLOCK_DIMENSION);
 
-    int masterHeight = BlockDisplayPanel.DEFAULT_BLOCK_DIMENSION * (boardPanel.getRows());
+    // Never shorter than the standard board, which the side panels are laid out for
+    int standardBoardHeight = BlockDisplayPanel.DEFAULT_BLOCK_DIMENSION * (TetrisGame.VERTICAL_DIMENSION - TetrisGame.HIDDEN_ROWS);
+    int masterHeight = Math.max(standardBoardHeight, boardScrollPane.getPreferredSize().height);
 
     setSize(masterWidth, masterHeight);
     setResizable(false); // I don't want to mess with trying to make this work right
 
     setLocationRelativeTo(null);
+
+    // Closing mid-game pauses it first, which saves it to be resumed on the next launch
+    addWindowListener(new WindowAdapter() {
+      @Override
+      public void windowClosing(WindowEvent e) {
+        if (menuPanel.pauseButton.isEnabled()) {
+          onPause();
+        }
+      }
+    });
+
+    loadSavedGame();
+  }
+
+  private void onFrame() {
+    boardPanel.scrollToActiveBlock();
+    repaint();
+  }
+
+  /** Restores the game saved when last paused, if any, leaving it paused */
+  private void loadSavedGame() {
+    GameSnapshot savedGame;
+    try {
+      savedGame = savedGameRepository.load().orElse(null);
+    } catch (IOException e) {
+      e.printStackTrace();
+      deleteSavedGame(); // Unreadable, so it would fail again on every launch
+      return;
+    }
+    if (savedGame == null) {
+      return;
+    }
+    if (savedGame.getRows() != game.getRows() || savedGame.getColumns() != game.getColumns()) {
+      return; // Saved on a board of a different size; kept for when the game is next launched with that size
+    }
+
+    // Sync the settings before restoring, since changing them resets the game's settings
+    settingsPanel.difficultyCombobox.setSelectedItem(savedGame.getDifficulty());
+    settingsPanel.timeAttackCheckbox.setSelected(savedGame.isTimeAttack());
+
+    game.restore(savedGame);
+    game.pause();
+    game.flush();
+    audioSystem.stopCurrentSoundtrack(); // Restoring the level starts its soundtrack; resuming picks it back up
+
+    settingsPanel.difficultyCombobox.setEnabled(false);
+    settingsPanel.specialsButton.setEnabled(false);
+    settingsPanel.timeAttackCheckbox.setEnabled(false);
+    settingsPanel.recordReplaysCheckbox.setEnabled(false);
+
+    menuPanel.startButton.setEnabled(false);
+    menuPanel.pauseButton.setEnabled(false);
+    menuPanel.resumeButton.setEnabled(true);
+    menuPanel.giveUpButton.setEnabled(true);
+
+    scorePanel.timeProgressBar.setVisible(savedGame.isTimeAttack());
+  }
+
+  private void saveGame() {
+    try {
+      savedGameRepository.save(game.snapshot());
+    } catch (IOException e) {
+      e.printStackTrace();
+      JOptionPane.showMessageDialog(this, "Could not save the paused game", "Error", JOptionPane.ERROR_MESSAGE);
+    }
+  }
+
+  private void deleteSavedGame() {
+    try {
+      savedGameRepository.delete();
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
   }
 
   private void onStart() {
 
     game.reset();
+    lastReplay = null;
+    if (settingsPanel.recordReplaysCheckbox.isSelected()) {
+      replayRecorder.start(game);
+    }
+    gameLoop.start();
 
     if (clearTask != null && !clearTask.isDone()) {
       clearTask.cancel(true);
@@ -280,6 +401,7 @@ public class MasterTetrisFrame extends JFrame {
     settingsPanel.timeAttackCheckbox.isSelected();
     settingsPanel.specialsButton.setEnabled(false);
     settingsPanel.timeAttackCheckbox.setEnabled(false);
+    settingsPanel.recordReplaysCheckbox.setEnabled(false);
     settingsPanel.ghostSquaresCheckbox.setEnabled(false);
     settingsPanel.musicCheckbox.setEnabled(false);
     settingsPanel.soundEffectsCheckbox.setEnabled(false);
@@ -289,6 +411,7 @@ public class MasterTetrisFrame extends JFrame {
     menuPanel.resumeButton.setEnabled(false);
     menuPanel.giveUpButton.setEnabled(true);
     menuPanel.leaderboardButton.setEnabled(false);
+    menuPanel.replaysButton.setEnabled(false);
 
     boardPanel.enableKeyHandler();
 
@@ -300,8 +423,9 @@ public class MasterTetrisFrame extends JFrame {
 
   private void onPause() {
 
-    game.getFallTimer().stop();
-    game.getGameTimer().stop();
+    gameLoop.stop();
+    game.pause();
+    saveGame();
 
     settingsPanel.ghostSquaresCheckbox.setEnabled(true);
     settingsPanel.musicCheckbox.setEnabled(true);
@@ -316,12 +440,14 @@ public class MasterTetrisFrame extends JFrame {
     menuPanel.pauseButton.setEnabled(false);
     menuPanel.giveUpButton.setEnabled(true);
     menuPanel.leaderboardButton.setEnabled(true);
+    menuPanel.replaysButton.setEnabled(true);
   }
 
   private void onResume() {
 
-    game.getFallTimer().start();
-    game.getGameTimer().start();
+    deleteSavedGame();
+    game.resume();
+    gameLoop.start();
 
     settingsPanel.ghostSquaresCheckbox.setEnabled(false);
     settingsPanel.musicCheckbox.setEnabled(false);
@@ -335,13 +461,18 @@ public class MasterTetrisFrame extends JFrame {
     menuPanel.pauseButton.setEnabled(true);
     menuPanel.giveUpButton.setEnabled(true);
     menuPanel.leaderboardButton.setEnabled(true);
+    menuPanel.replaysButton.setEnabled(true);
   }
 
   private void onWin() {
 
+    gameLoop.stop();
+    finishRecording();
+
     settingsPanel.difficultyCombobox.setEnabled(true);
     settingsPanel.specialsButton.setEnabled(true);
     settingsPanel.timeAttackCheckbox.setEnabled(true);
+    settingsPanel.recordReplaysCheckbox.setEnabled(true);
     settingsPanel.ghostSquaresCheckbox.setEnabled(true);
     settingsPanel.musicCheckbox.setEnabled(true);
     settingsPanel.soundEffectsCheckbox.setEnabled(true);
@@ -351,6 +482,7 @@ public class MasterTetrisFrame extends JFrame {
     menuPanel.resumeButton.setEnabled(false);
     menuPanel.giveUpButton.setEnabled(false);
     menuPanel.leaderboardButton.setEnabled(true);
+    menuPanel.replaysButton.setEnabled(true);
 
     audioSystem.stopCurrentSoundtrack();
     audioSystem.playVictoryFanfare();
@@ -363,8 +495,10 @@ public class MasterTetrisFrame extends JFrame {
 
   private void onGameOver() {
 
-    game.getFallTimer().stop();
-    game.getGameTimer().stop();
+    gameLoop.stop();
+    game.pause();
+    deleteSavedGame();
+    finishRecording();
 
     audioSystem.stopCurrentSoundtrack();
     audioSystem.playGameOverSound();
@@ -374,11 +508,13 @@ public class MasterTetrisFrame extends JFrame {
     menuPanel.resumeButton.setEnabled(false);
     menuPanel.giveUpButton.setEnabled(false);
     menuPanel.leaderboardButton.setEnabled(true);
+    menuPanel.replaysButton.setEnabled(true);
 
     settingsPanel.ghostSquaresCheckbox.setEnabled(true);
     settingsPanel.musicCheckbox.setEnabled(true);
     settingsPanel.soundEffectsCheckbox.setEnabled(true);
     settingsPanel.timeAttackCheckbox.setEnabled(true);
+    settingsPanel.recordReplaysCheckbox.setEnabled(true);
     settingsPanel.difficultyCombobox.setEnabled(true);
     settingsPanel.specialsButton.setEnabled(true);
 
@@ -390,15 +526,105 @@ public class MasterTetrisFrame extends JFrame {
     clearTask = THREAD_POOL.submit(boardPanel::spiralClear);
   }
 
-  private class BoardPanel extends ColorGrid {
+  /** Applies a player input to the game between steps of the game loop, recording it first if the game is being recorded */
+  private boolean applyInput(GameInput input) {
+    boolean applied;
+    synchronized (game) {
+      gameLoop.catchUp();
+      replayRecorder.record(input);
+      applied = game.apply(input);
+    }
+    if (applied) {
+      gameLoop.wake(); // A drop can level up, changing when the next gravity step is due
+    }
+
+    GameLoopMetrics loopMetrics = game.getLoopMetrics();
+    if (loopMetrics.isEnabled()) {
+      loopMetrics.recordMillis(loopMetrics.getInputToModel(), System.currentTimeMillis() - keyPressedMillis);
+      if (applied) {
+        loopMetrics.markModelChanged();
+      }
+    }
+    return applied;
+  }
+
+  /** Holds the active block or releases the held one, playing its sound if it worked */
+  private void applyHoldInput(GameInput input) {
+    HoldEvent event = new HoldEvent();
+    event.begin();
+
+    boolean release = input == GameInput.RELEASE_HOLD;
+    Block block;
+    boolean applied;
+    synchronized (game) {
+      gameLoop.catchUp(); // So the block looked up is the one the input applies to
+      block = release ? game.getHoldBlock().orElse(null) : game.getActiveBlock();
+      applied = applyInput(input);
+    }
+    if (applied) {
+      if (release) {
+        audioSystem.playReleaseSound();
+      } else {
+        audioSystem.playHoldSound();
+      }
+    }
+
+    if (event.shouldCommit()) {
+      event.release = release;
+      event.applied = applied;
+      event.blockType = block == null ? null : block.getType().toString();
+      event.commit();
+    }
+  }
+
+  private void openReplay() {
+    JFileChooser chooser = new JFileChooser(replayRepository.getDirectory().toFile());
+    chooser.setFileFilter(new FileNameExtensionFilter("Tetris replays", ReplayRepository.EXTENSION.substring(1)));
+    if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+      return;
+    }
+
+    Replay replay;
+    try {
+      replay = replayRepository.load(chooser.getSelectedFile().toPath());
+    } catch (IOException e) {
+      e.printStackTrace();
+      JOptionPane.showMessageDialog(this, "Could not read replay", "Error", JOptionPane.ERROR_MESSAGE);
+      return;
+    }
+    menuPanel.replaysButton.bindDisabledStateToFrame(new ReplayFrame(replay));
+  }
+
+  private void finishRecording() {
+    lastReplay = replayRecorder.isRecording() ? replayRecorder.finish() : null;
+  }
+
+  private class BoardPanel extends GameBoardGrid implements Scrollable {
 
     private static final int SPIRAL_SLEEP_INTERVAL = 7;
     private static final int CLEAR_SLEEP_INTERVAL = 79;
 
+    // Larger boards paint several squares or rows per step, so their effects take as long as on the standard board
+    private static final int STANDARD_VISIBLE_ROWS = TetrisGame.VERTICAL_DIMENSION - TetrisGame.HIDDEN_ROWS;
+    private static final int STANDARD_VISIBLE_SQUARES = STANDARD_VISIBLE_ROWS * TetrisGame.HORIZONTAL_DIMENSION;
+
     BoardPanel() {
-      super(TetrisGame.VERTICAL_DIMENSION - 3, TetrisGame.HORIZONTAL_DIMENSION, BlockDisplayPanel.DEFAULT_BLOCK_DIMENSION);
+      super(game);
       setFocusable(true);
-      setBorder(BorderFactory.createLineBorder(Color.GRAY, 1));
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+      GameLoopMetrics loopMetrics = game.getLoopMetrics();
+      if (!loopMetrics.isEnabled()) {
+        super.paintComponent(g);
+        return;
+      }
+
+      long start = System.nanoTime();
+      loopMetrics.markPainted(start);
+      super.paintComponent(g);
+      loopMetrics.getBoardPaint().record(System.nanoTime() - start);
     }
 
     void enableKeyHandler() {
@@ -409,22 +635,69 @@ public class MasterTetrisFrame extends JFrame {
       removeKeyListener(keyHandler);
     }
 
+    /** Scrolls the board so the active block is in view, when the board doesn't fit on screen */
+    void scrollToActiveBlock() {
+      if (!(getParent() instanceof JViewport)) {
+        return;
+      }
+
+      int row, column;
+      synchronized (game) {
+        Block activeBlock = game.getActiveBlock();
+        if (activeBlock == null) {
+          return;
+        }
+        row = activeBlock.getRow();
+        column = activeBlock.getColumn();
+      }
+
+      int unitHeight = getUnitHeight(), unitWidth = getUnitWidth();
+      scrollRectToVisible(new Rectangle(column * unitWidth, (row - TetrisGame.HIDDEN_ROWS) * unitHeight, 4 * unitWidth, 4 * unitHeight));
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+      Dimension preferredSize = getPreferredSize();
+      return new Dimension(Math.min(preferredSize.width, MAX_VIEWPORT_WIDTH), Math.min(preferredSize.height, MAX_VIEWPORT_HEIGHT));
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+      return orientation == SwingConstants.VERTICAL ? getUnitHeight() : getUnitWidth();
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+      return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+    }
+
+    // Stretches to fill the viewport when the board is smaller than it, as it did before the board could scroll
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+      return getParent().getWidth() > getPreferredSize().width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+      return getParent().getHeight() > getPreferredSize().height;
+    }
+
     void spiralClear() {
       try {
-        game.persistActiveBlockColors();
-        game.clearActiveBlock();
+        // Each step's changes are made holding the game's lock, as painting and a newly started game can run alongside
+        synchronized (game) {
+          game.persistActiveBlockColors();
+          game.clearActiveBlock();
+        }
 
-        Collection<ColoredSquare> spiralSquares = new LinkedHashSet<>();
+        List<ColoredSquare> spiralSquares = new ArrayList<>();
 
         int nextLeftCol = 0,
-            nextRightCol = TetrisGame.HORIZONTAL_DIMENSION - 1,
-            nextTopRow = 3,
-            nextBottomRow = TetrisGame.VERTICAL_DIMENSION - 1;
+            nextRightCol = game.getColumns() - 1,
+            nextTopRow = TetrisGame.HIDDEN_ROWS,
+            nextBottomRow = game.getRows() - 1;
 
-        int maxSquares = TetrisGame.VERTICAL_DIMENSION * TetrisGame.HORIZONTAL_DIMENSION;
-        maxSquares -= (3 * TetrisGame.HORIZONTAL_DIMENSION); // Knock off invisible rows at top
-
-        while (spiralSquares.size() < maxSquares) {
+        while (nextLeftCol <= nextRightCol && nextTopRow <= nextBottomRow) {
 
           // All cells in the next leftmost column
           for (int row = nextTopRow; row <= nextBottomRow; row++) {
@@ -439,35 +712,49 @@ public class MasterTetrisFrame extends JFrame {
           nextBottomRow--;
 
           // All cells in the next rightmost column
-          for (int row = nextBottomRow; row >= nextTopRow; row--) {
-            spiralSquares.add(new ColoredSquare(row, nextRightCol));
+          if (nextLeftCol <= nextRightCol) {
+            for (int row = nextBottomRow; row >= nextTopRow; row--) {
+              spiralSquares.add(new ColoredSquare(row, nextRightCol));
+            }
           }
           nextRightCol--;
 
           // All cells in the next top row
-          for (int col = nextRightCol; col >= nextLeftCol; col--) {
-            spiralSquares.add(new ColoredSquare(nextTopRow, col));
+          if (nextTopRow <= nextBottomRow) {
+            for (int col = nextRightCol; col >= nextLeftCol; col--) {
+              spiralSquares.add(new ColoredSquare(nextTopRow, col));
+            }
           }
           nextTopRow++;
         }
 
+        int squaresPerStep = Math.max(1, spiralSquares.size() / STANDARD_VISIBLE_SQUARES);
+
         // Run 1 loop to paint in all unoccupied squares
-        for (ColoredSquare spiralSquare : spiralSquares) {
-          if (game.isOpenAndInBounds(spiralSquare.getRow(), spiralSquare.getColumn())) {
-            game.setColor(spiralSquare.getRow(), spiralSquare.getColumn(), spiralSquare.getColor());
+        for (int stepStart = 0; stepStart < spiralSquares.size(); stepStart += squaresPerStep) {
+          synchronized (game) {
+            for (ColoredSquare spiralSquare : spiralSquares.subList(stepStart, Math.min(stepStart + squaresPerStep, spiralSquares.size()))) {
+              if (game.isOpenAndInBounds(spiralSquare.getRow(), spiralSquare.getColumn())) {
+                game.setColor(spiralSquare.getRow(), spiralSquare.getColumn(), spiralSquare.getColor());
+              }
+            }
           }
           repaint();
           Thread.sleep(SPIRAL_SLEEP_INTERVAL);
         }
 
         // Run a second loop to erase all of them
-        for (ColoredSquare spiralSquare : spiralSquares) {
-          game.clearSquare(spiralSquare.getRow(), spiralSquare.getColumn());
+        for (int stepStart = 0; stepStart < spiralSquares.size(); stepStart += squaresPerStep) {
+          synchronized (game) {
+            for (ColoredSquare spiralSquare : spiralSquares.subList(stepStart, Math.min(stepStart + squaresPerStep, spiralSquares.size()))) {
+              game.clearSquare(spiralSquare.getRow(), spiralSquare.getColumn());
+            }
+          }
           repaint();
           Thread.sleep(SPIRAL_SLEEP_INTERVAL);
         }
 
-          menuPanel.leaderboardButton.bindDisabledStateToFrame(new ScoreResultsFrame(scoreRepository, game));
+          menuPanel.leaderboardButton.bindDisabledStateToFrame(new ScoreResultsFrame(scoreRepository, replayRepository, game, lastReplay));
       } catch (InterruptedException e) {
         // Will happen if new game is started before spiral clear is finished
       } catch (Exception e) {
@@ -478,11 +765,17 @@ public class MasterTetrisFrame extends JFrame {
     void jumpClear() {
       try {
 
+        int rowsPerStep = Math.max(1, (game.getRows() - TetrisGame.HIDDEN_ROWS) / STANDARD_VISIBLE_ROWS);
+
         // Fill all rows bottom to top
-        for (int row = TetrisGame.VERTICAL_DIMENSION - 1; row >= 3; row --) {
-          for (int col = 0; col < TetrisGame.HORIZONTAL_DIMENSION; col++) {
-            if (game.isOpenAndInBounds(row, col)) {
-              game.setColor(row, col, Utility.getRandomColor());
+        for (int stepBottomRow = game.getRows() - 1; stepBottomRow >= TetrisGame.HIDDEN_ROWS; stepBottomRow -= rowsPerStep) {
+          synchronized (game) {
+            for (int row = stepBottomRow; row > stepBottomRow - rowsPerStep && row >= TetrisGame.HIDDEN_ROWS; row--) {
+              for (int col = 0; col < game.getColumns(); col++) {
+                if (game.isOpenAndInBounds(row, col)) {
+                  game.setColor(row, col, Utility.getRandomColor());
+                }
+              }
             }
           }
           repaint();
@@ -490,15 +783,19 @@ public class MasterTetrisFrame extends JFrame {
         }
 
         // Clear all rows top to bottom.
-        for (int row = 3; row < TetrisGame.VERTICAL_DIMENSION; row ++) {
-          for (int col = 0; col < TetrisGame.HORIZONTAL_DIMENSION; col++) {
-            game.clearSquare(row, col);
+        for (int stepTopRow = TetrisGame.HIDDEN_ROWS; stepTopRow < game.getRows(); stepTopRow += rowsPerStep) {
+          synchronized (game) {
+            for (int row = stepTopRow; row < stepTopRow + rowsPerStep && row < game.getRows(); row++) {
+              for (int col = 0; col < game.getColumns(); col++) {
+                game.clearSquare(row, col);
+              }
+            }
           }
           repaint();
           Thread.sleep(CLEAR_SLEEP_INTERVAL);
         }
 
-        menuPanel.leaderboardButton.bindDisabledStateToFrame(new ScoreResultsFrame(scoreRepository, game));
+        menuPanel.leaderboardButton.bindDisabledStateToFrame(new ScoreResultsFrame(scoreRepository, replayRepository, game, lastReplay));
       } catch (InterruptedException e) {
         // Will happen if we start a new game before task is done
       } catch (Exception e) {
@@ -506,16 +803,6 @@ public class MasterTetrisFrame extends JFrame {
       }
     }
 
-    @Override
-    public Collection<ColoredSquare> getCurrentColors() {
-      return game.getColoredSquares();
-    }
-
-    @Override
-    protected int getYCoordinate(ColoredSquare square) {
-      return (square.getRow() - 3) * getUnitHeight(); // Adjusts for 3 invisible squares at top
-    }
-
   }
 
   private class ScorePanel extends JPanel {
@@ -607,6 +894,7 @@ public class MasterTetrisFrame extends JFrame {
     private final JCheckBox musicCheckbox;
     private final JCheckBox soundEffectsCheckbox;
     private final JCheckBox timeAttackCheckbox;
+    private final JCheckBox recordReplaysCheckbox;
     private final JComboBox<Difficulty> difficultyCombobox;
     private final TetrisButton specialsButton;
 
@@ -640,6 +928,9 @@ public class MasterTetrisFrame extends JFrame {
        "</html>"
       );
 
+      recordReplaysCheckbox = new JCheckBox("Record Replays", true);
+      recordReplaysCheckbox.setToolTipText("Records each game so that a replay is saved along with any leaderboard score");
+
       difficultyCombobox = new JComboBox<>(Difficulty.values());
       difficultyCombobox.addActionListener(e -> game.setDifficulty(getSelectedDifficulty()));
       difficultyCombobox.setSelectedIndex(0);
@@ -652,7 +943,7 @@ public class MasterTetrisFrame extends JFrame {
       setLayout(new BorderLayout());
       setBorder(new TitledBorder("Settings"));
 
-      List<JCheckBox> checkboxes = List.of(ghostSquaresCheckbox, musicCheckbox, soundEffectsCheckbox, timeAttackCheckbox)
+      List<JCheckBox> checkboxes = List.of(ghostSquaresCheckbox, musicCheckbox, soundEffectsCheckbox, timeAttackCheckbox, recordReplaysCheckbox)
               .stream()
               .filter(Component::isVisible)// Sound checkboxes will be invisible if we are running the no-sound distribution
               .collect(Collectors.toList());
@@ -718,6 +1009,7 @@ public class MasterTetrisFrame extends JFrame {
     final TetrisButton resumeButton = new TetrisButton("Resume");
     final TetrisButton giveUpButton = new TetrisButton("Give Up");
     final TetrisButton leaderboardButton = new TetrisButton("Leaderboard");
+    final TetrisButton replaysButton = new TetrisButton("Replays");
 
     private MenuPanel() {
 
@@ -745,6 +1037,11 @@ public class MasterTetrisFrame extends JFrame {
       );
       add(leaderboardButton);
 
+      replaysButton.setMnemonic('y');
+      replaysButton.setEnabled(true);
+      replaysButton.addActionListener(e -> openReplay());
+      add(replaysButton);
+
       giveUpButton.setMnemonic('g');
       giveUpButton.setEnabled(false);
       giveUpButton.addActionListener(e -> onGameOver());
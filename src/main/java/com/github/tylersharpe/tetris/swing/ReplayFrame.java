@@ -0,0 +1,172 @@
+package com.github.tylersharpe.tetris.swing;
+
+import com.github.tylersharpe.tetris.Block;
+import com.github.tylersharpe.tetris.ColoredSquare;
+import com.github.tylersharpe.tetris.TetrisGame;
+import com.github.tylersharpe.tetris.Utility;
+import com.github.tylersharpe.tetris.replay.Replay;
+import com.github.tylersharpe.tetris.replay.ReplayPlayer;
+
+import javax.swing.*;
+import javax.swing.Timer;
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Plays back a recorded game on its own silent copy of the game, at normal speed, ten times speed or as fast as possible.
+ * The position slider seeks to any point of the game.
+ */
+class ReplayFrame extends JFrame {
+
+  private static final int FRAME_INTERVAL_MILLIS = 15;
+  private static final long NANOS_PER_MILLI = 1_000_000;
+  private static final int MILLIS_PER_SLIDER_STEP = 100;
+  private static final int MAX_SPEED = -1;
+
+  private final TetrisGame game;
+  private final ReplayPlayer player;
+  private final Timer frameTimer;
+  private final GameBoardGrid boardGrid;
+  private final JSlider positionSlider;
+  private final JLabel statusLabel = new JLabel("", JLabel.CENTER);
+  private final TetrisButton playButton = new TetrisButton("Pause");
+
+  private int speed = 1;
+  private long lastFrameNanos;
+  private long pendingNanos; // Scaled elapsed time not yet played because it didn't add up to a whole millisecond
+  private boolean updatingSlider;
+
+  ReplayFrame(Replay replay) {
+    this.game = new TetrisGame(replay.rows, replay.columns);
+    this.boardGrid = new GameBoardGrid(game);
+    this.player = new ReplayPlayer(replay, game);
+    this.frameTimer = new Timer(FRAME_INTERVAL_MILLIS, e -> onFrame());
+
+    positionSlider = new JSlider(0, (int) (player.getDuration() / MILLIS_PER_SLIDER_STEP), 0);
+    positionSlider.setFocusable(false);
+    positionSlider.addChangeListener(e -> {
+      if (!updatingSlider) {
+        player.seek((long) positionSlider.getValue() * MILLIS_PER_SLIDER_STEP);
+        refresh();
+      }
+    });
+
+    BlockDisplayPanel nextBlockPanel = new BlockDisplayPanel("Next") {
+      @Override
+      public Collection<ColoredSquare> getCurrentColors() {
+        Block nextBlock = game.getConveyor().peek();
+        return nextBlock == null ? List.of() : nextBlock.getPreviewPanelSquares();
+      }
+    };
+    BlockDisplayPanel holdPanel = new BlockDisplayPanel("Hold") {
+      @Override
+      public Collection<ColoredSquare> getCurrentColors() {
+        return game.getHoldBlock().map(Block::getPreviewPanelSquares).orElse(Collections.emptyList());
+      }
+    };
+
+    playButton.addActionListener(e -> {
+      if (frameTimer.isRunning()) {
+        pause();
+      } else {
+        play();
+      }
+    });
+
+    JPanel controlsPanel = new JPanel(new FlowLayout());
+    controlsPanel.add(playButton);
+    controlsPanel.add(createSpeedButton("1x", 1));
+    controlsPanel.add(createSpeedButton("10x", 10));
+    controlsPanel.add(createSpeedButton("Max", MAX_SPEED));
+
+    JPanel southPanel = new JPanel(new GridLayout(3, 1));
+    southPanel.add(statusLabel);
+    southPanel.add(positionSlider);
+    southPanel.add(controlsPanel);
+
+    JPanel sidePanel = new JPanel(new BorderLayout());
+    sidePanel.add(nextBlockPanel, BorderLayout.NORTH);
+    sidePanel.add(holdPanel, BorderLayout.SOUTH);
+
+    setLayout(new BorderLayout());
+    add(new JScrollPane(boardGrid), BorderLayout.CENTER);
+    add(sidePanel, BorderLayout.EAST);
+    add(southPanel, BorderLayout.SOUTH);
+
+    SwingUtility.setIcon(this, "/images/game-icon.png");
+    setTitle("Replay - " + replay.difficulty + (replay.timeAttack ? " (Time Attack)" : ""));
+    setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+    setResizable(false);
+    pack();
+    setLocationRelativeTo(null);
+    setVisible(true);
+
+    refresh();
+    play();
+  }
+
+  @Override
+  public void dispose() {
+    frameTimer.stop();
+    super.dispose();
+  }
+
+  private TetrisButton createSpeedButton(String text, int buttonSpeed) {
+    TetrisButton button = new TetrisButton(text);
+    button.addActionListener(e -> {
+      speed = buttonSpeed;
+      play();
+    });
+    return button;
+  }
+
+  private void play() {
+    if (player.isFinished()) {
+      player.seek(0);
+    }
+    lastFrameNanos = System.nanoTime();
+    pendingNanos = 0;
+    frameTimer.start();
+    playButton.setText("Pause");
+  }
+
+  private void pause() {
+    frameTimer.stop();
+    playButton.setText("Play");
+  }
+
+  private void onFrame() {
+    if (speed == MAX_SPEED) {
+      player.advance(Long.MAX_VALUE);
+    } else {
+      long now = System.nanoTime();
+      pendingNanos += (now - lastFrameNanos) * speed;
+      lastFrameNanos = now;
+
+      long elapsedMillis = pendingNanos / NANOS_PER_MILLI;
+      pendingNanos -= elapsedMillis * NANOS_PER_MILLI;
+      player.advance(elapsedMillis);
+    }
+
+    if (player.isFinished()) {
+      pause();
+    }
+    refresh();
+  }
+
+  private void refresh() {
+    updatingSlider = true;
+    positionSlider.setValue((int) (player.getPosition() / MILLIS_PER_SLIDER_STEP));
+    updatingSlider = false;
+
+    statusLabel.setText(
+      "Score: " + game.getScore() +
+      "   Lines: " + game.getTotalLinesCleared() +
+      "   Level: " + game.getLevel() +
+      "   Time: " + Utility.formatSeconds(player.getPosition() / 1000) + " / " + Utility.formatSeconds(player.getDuration() / 1000)
+    );
+    repaint();
+  }
+
+}
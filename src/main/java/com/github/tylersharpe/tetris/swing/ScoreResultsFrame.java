@@ -3,6 +3,8 @@ package com.github.tylersharpe.tetris.swing;
 import com.github.tylersharpe.tetris.Score;
 import com.github.tylersharpe.tetris.ScoreRepository;
 import com.github.tylersharpe.tetris.TetrisGame;
+import com.github.tylersharpe.tetris.replay.Replay;
+import com.github.tylersharpe.tetris.replay.ReplayRepository;
 
 import javax.swing.*;
 import java.awt.*;
@@ -17,11 +19,15 @@ class ScoreResultsFrame extends JFrame {
 
   private final JTextField nameField = new JTextField(10);
   private final ScoreRepository scoreRepository;
+  private final ReplayRepository replayRepository;
   private final TetrisGame tetrisGame;
+  private final Replay replay; // Null if the game wasn't recorded
 
-  ScoreResultsFrame(ScoreRepository scoreRepository, TetrisGame tetrisGame) {
+  ScoreResultsFrame(ScoreRepository scoreRepository, ReplayRepository replayRepository, TetrisGame tetrisGame, Replay replay) {
     this.scoreRepository = scoreRepository;
+    this.replayRepository = replayRepository;
     this.tetrisGame = tetrisGame;
+    this.replay = replay;
 
     setLayout(new GridLayout(3, 1));
 
@@ -99,6 +105,9 @@ class ScoreResultsFrame extends JFrame {
           tetrisGame.getLevel(),
           LocalDate.now())
       );
+      if (replay != null) {
+        replayRepository.save(replay, saveName);
+      }
       dispose();
       new LeaderBoardFrame(scoreRepository, rank);
     } catch (IOException ex) {
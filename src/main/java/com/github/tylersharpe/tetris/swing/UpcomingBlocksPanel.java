@@ -0,0 +1,53 @@
+package com.github.tylersharpe.tetris.swing;
+
+import com.github.tylersharpe.tetris.Block;
+import com.github.tylersharpe.tetris.ColoredSquare;
+import com.github.tylersharpe.tetris.TetrisGame;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Compact strip showing the blocks queued up behind the next one, side by side
+ */
+class UpcomingBlocksPanel extends ColorGrid {
+
+  private static final int CELL_DIMENSION = 14;
+
+  private final TetrisGame game;
+  private final int blockCount;
+
+  /**
+   * @param blockCount Number of blocks to show, starting with the one after the next block
+   */
+  UpcomingBlocksPanel(TetrisGame game, int blockCount) {
+    super(BlockDisplayPanel.BLOCK_DISPLAY_PANEL_ROWS, BlockDisplayPanel.BLOCK_DISPLAY_PANEL_COLUMNS * blockCount, CELL_DIMENSION);
+    this.game = game;
+    this.blockCount = blockCount;
+    setFocusable(false);
+  }
+
+  @Override
+  public Collection<ColoredSquare> getCurrentColors() {
+    List<ColoredSquare> squares = new ArrayList<>();
+
+    for (int i = 0; i < blockCount; i++) {
+      Block upcomingBlock;
+      synchronized (game) {
+        upcomingBlock = game.getConveyor().peek(i + 1);
+      }
+      if (upcomingBlock == null) {
+        continue;
+      }
+
+      int columnOffset = i * BlockDisplayPanel.BLOCK_DISPLAY_PANEL_COLUMNS;
+      for (ColoredSquare square : upcomingBlock.getPreviewPanelSquares()) {
+        squares.add(new ColoredSquare(square.getColor(), square.getRow(), square.getColumn() + columnOffset));
+      }
+    }
+
+    return squares;
+  }
+
+}
@@ -0,0 +1,258 @@
+package com.github.tylersharpe.tetris.tuning;
+
+import com.github.tylersharpe.tetris.BlockType;
+import com.github.tylersharpe.tetris.Difficulty;
+import com.github.tylersharpe.tetris.ai.EvaluationWeights;
+import com.github.tylersharpe.tetris.ai.Feature;
+import com.github.tylersharpe.tetris.simulation.BatchSimulator;
+import com.github.tylersharpe.tetris.simulation.PlacementSearchPolicy;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Evolves the weights of the AI's board evaluation. Every generation, each candidate plays the same batch of seeded
+ * headless games with the greedy placement search, and its fitness is its mean score. The fittest candidates carry
+ * over unchanged; the rest of the next generation are bred from tournament-selected parents by fitness-weighted
+ * crossover and Gaussian mutation.
+ *
+ * <p>Each evaluated generation is checkpointed to disk. Breeding is seeded from the tuner's seed and the generation
+ * number, so a run resumed from its checkpoint continues exactly where it left off.
+ */
+public class GeneticTuner {
+
+  private static final int FEATURES = Feature.values().length;
+  private static final int TOURNAMENT_SIZE = 3;
+
+  private final Difficulty difficulty;
+  private final Path checkpointPath;
+  private Collection<BlockType> specialBlockTypes = List.of();
+  private int populationSize = 24;
+  private int gamesPerCandidate = 16;
+  private int eliteCount = 2;
+  private double mutationRate = 0.2;
+  private double mutationScale = 0.2;
+  private int parallelism = Runtime.getRuntime().availableProcessors();
+  private long seed;
+  private Consumer<TunerCheckpoint> generationListener = checkpoint -> {};
+
+  public GeneticTuner(Difficulty difficulty, Path checkpointPath) {
+    this.difficulty = Objects.requireNonNull(difficulty, "'difficulty' cannot be null");
+    this.checkpointPath = Objects.requireNonNull(checkpointPath, "'checkpointPath' cannot be null");
+  }
+
+  public void setSpecialBlockTypes(Collection<BlockType> specialBlockTypes) {
+    this.specialBlockTypes = List.copyOf(specialBlockTypes);
+  }
+
+  public void setPopulationSize(int populationSize) {
+    if (populationSize < 2) {
+      throw new IllegalArgumentException("Population size must be at least 2");
+    }
+    this.populationSize = populationSize;
+  }
+
+  public void setGamesPerCandidate(int gamesPerCandidate) {
+    if (gamesPerCandidate < 1) {
+      throw new IllegalArgumentException("Games per candidate must be at least 1");
+    }
+    this.gamesPerCandidate = gamesPerCandidate;
+  }
+
+  /** Sets how many of the fittest candidates are carried into the next generation unchanged */
+  public void setEliteCount(int eliteCount) {
+    if (eliteCount < 0) {
+      throw new IllegalArgumentException("Elite count cannot be negative");
+    }
+    this.eliteCount = eliteCount;
+  }
+
+  /** Sets the chance of each weight of a newly bred candidate being mutated, and the standard deviation of mutations */
+  public void setMutation(double mutationRate, double mutationScale) {
+    if (mutationRate < 0 || mutationRate > 1 || mutationScale < 0) {
+      throw new IllegalArgumentException("Mutation rate must be between 0 and 1 and its scale cannot be negative");
+    }
+    this.mutationRate = mutationRate;
+    this.mutationScale = mutationScale;
+  }
+
+  public void setParallelism(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism must be at least 1");
+    }
+    this.parallelism = parallelism;
+  }
+
+  /** Sets the seed of the initial population and of all breeding. Ignored when resuming, which keeps the original seed */
+  public void setSeed(long seed) {
+    this.seed = seed;
+  }
+
+  /** Sets a listener which receives each generation once it has been evaluated and checkpointed */
+  public void setGenerationListener(Consumer<TunerCheckpoint> generationListener) {
+    this.generationListener = Objects.requireNonNull(generationListener, "'generationListener' cannot be null");
+  }
+
+  /**
+   * Trains until the given number of generations have been evaluated in total, resuming from the checkpoint if there
+   * is one.
+   *
+   * @return The last generation evaluated
+   */
+  public TunerCheckpoint run(int generations) throws IOException {
+    TunerCheckpoint checkpoint = TunerCheckpoint.load(checkpointPath);
+    long runSeed = seed;
+    double[][] population;
+    int generation;
+
+    if (checkpoint == null) {
+      population = createInitialPopulation(new SplittableRandom(runSeed));
+      generation = 0;
+    } else {
+      if (checkpoint.difficulty != difficulty) {
+        throw new IllegalStateException("Checkpoint " + checkpointPath + " was made for " + checkpoint.difficulty + ", not " + difficulty);
+      }
+      if (!checkpoint.specialBlockTypes.equals(Set.copyOf(specialBlockTypes))) {
+        throw new IllegalStateException(
+          "Checkpoint " + checkpointPath + " was made with special blocks " + checkpoint.specialBlockTypes + ", not " + specialBlockTypes
+        );
+      }
+      runSeed = checkpoint.seed;
+      population = breed(checkpoint, new SplittableRandom(runSeed + checkpoint.generation + 1));
+      generation = checkpoint.generation + 1;
+    }
+
+    while (generation < generations) {
+      double[] fitness = evaluate(population, runSeed + generation);
+
+      checkpoint = new TunerCheckpoint(difficulty, specialBlockTypes, runSeed, generation, population, fitness);
+      checkpoint.save(checkpointPath);
+      generationListener.accept(checkpoint);
+
+      generation++;
+      population = breed(checkpoint, new SplittableRandom(runSeed + generation));
+    }
+
+    return checkpoint;
+  }
+
+  private double[][] createInitialPopulation(SplittableRandom random) {
+    double[][] population = new double[populationSize][];
+    population[0] = normalize(EvaluationWeights.DEFAULT.toArray());
+
+    for (int i = 1; i < populationSize; i++) {
+      double[] weights = new double[FEATURES];
+      for (int feature = 0; feature < FEATURES; feature++) {
+        weights[feature] = random.nextDouble(-1, 1);
+      }
+      population[i] = normalize(weights);
+    }
+    return population;
+  }
+
+  /**
+   * Every candidate plays the same games, so differences in fitness come from the weights rather than the luck of the
+   * block sequence. Games are spread across all worker threads.
+   */
+  private double[] evaluate(double[][] population, long generationSeed) {
+    double[] fitness = new double[population.length];
+
+    for (int i = 0; i < population.length; i++) {
+      BatchSimulator simulator = new BatchSimulator(difficulty, new PlacementSearchPolicy(new EvaluationWeights(population[i])));
+      simulator.setSpecialBlockTypes(specialBlockTypes);
+      simulator.setParallelism(parallelism);
+      fitness[i] = simulator.run(gamesPerCandidate, generationSeed).getStatistics().getScore().getAverage();
+    }
+    return fitness;
+  }
+
+  private double[][] breed(TunerCheckpoint parents, SplittableRandom random) {
+    double[][] population = new double[populationSize][];
+    Integer[] byFitness = new Integer[parents.population.length];
+    for (int i = 0; i < byFitness.length; i++) {
+      byFitness[i] = i;
+    }
+    Arrays.sort(byFitness, (a, b) -> Double.compare(parents.fitness[b], parents.fitness[a]));
+
+    int elites = Math.min(eliteCount, Math.min(populationSize, byFitness.length));
+    for (int i = 0; i < elites; i++) {
+      population[i] = parents.population[byFitness[i]].clone();
+    }
+
+    for (int i = elites; i < populationSize; i++) {
+      int first = selectByTournament(parents, random);
+      int second = selectByTournament(parents, random);
+      population[i] = mutate(crossover(parents, first, second), random);
+    }
+    return population;
+  }
+
+  private int selectByTournament(TunerCheckpoint parents, SplittableRandom random) {
+    int winner = random.nextInt(parents.population.length);
+    for (int round = 1; round < TOURNAMENT_SIZE; round++) {
+      int challenger = random.nextInt(parents.population.length);
+      if (parents.fitness[challenger] > parents.fitness[winner]) {
+        winner = challenger;
+      }
+    }
+    return winner;
+  }
+
+  /** @return Average of the two parents' weights, each weighted by its fitness */
+  private double[] crossover(TunerCheckpoint parents, int first, int second) {
+    double firstFitness = Math.max(0, parents.fitness[first]);
+    double secondFitness = Math.max(0, parents.fitness[second]);
+    double totalFitness = firstFitness + secondFitness;
+    double firstShare = totalFitness == 0 ? 0.5 : firstFitness / totalFitness;
+
+    double[] child = new double[FEATURES];
+    for (int feature = 0; feature < FEATURES; feature++) {
+      child[feature] = firstShare * parents.population[first][feature] + (1 - firstShare) * parents.population[second][feature];
+    }
+    return child;
+  }
+
+  private double[] mutate(double[] weights, SplittableRandom random) {
+    for (int feature = 0; feature < FEATURES; feature++) {
+      if (random.nextDouble() < mutationRate) {
+        weights[feature] += nextGaussian(random) * mutationScale;
+      }
+    }
+    return normalize(weights);
+  }
+
+  /**
+   * Scales the weights to unit length. Placements are ranked by comparing scores, so scaling never changes how the AI
+   * plays, and keeping every candidate the same length keeps crossover and mutation on a comparable scale.
+   */
+  private static double[] normalize(double[] weights) {
+    double length = 0;
+    for (double weight : weights) {
+      length += weight * weight;
+    }
+    length = Math.sqrt(length);
+    if (length == 0) {
+      return weights;
+    }
+
+    for (int feature = 0; feature < weights.length; feature++) {
+      weights[feature] /= length;
+    }
+    return weights;
+  }
+
+  // SplittableRandom has no Gaussian before Java 17, so use the Box-Muller transform
+  private static double nextGaussian(SplittableRandom random) {
+    double u = 1 - random.nextDouble(); // In (0, 1], so the log is finite
+    double v = random.nextDouble();
+    return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v);
+  }
+
+}
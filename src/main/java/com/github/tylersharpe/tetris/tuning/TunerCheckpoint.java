@@ -0,0 +1,72 @@
+package com.github.tylersharpe.tetris.tuning;
+
+import com.github.tylersharpe.tetris.BlockType;
+import com.github.tylersharpe.tetris.Difficulty;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * A generation of the {@link GeneticTuner} after it has been evaluated. The next generation is bred deterministically
+ * from this one, so training resumed from a checkpoint carries on exactly as if it had never stopped.
+ */
+public class TunerCheckpoint implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  public final Difficulty difficulty;
+  public final Set<BlockType> specialBlockTypes; // Enabled on top of the standard blocks in every training game
+  public final long seed;
+  public final int generation;
+  public final double[][] population; // Unit-length weight vectors, indexed by Feature ordinal
+  public final double[] fitness;      // Mean score of each member of the population
+  public final int fittest;           // Index of the fittest member
+
+  TunerCheckpoint(Difficulty difficulty, Collection<BlockType> specialBlockTypes, long seed, int generation,
+                  double[][] population, double[] fitness) {
+    this.difficulty = difficulty;
+    this.specialBlockTypes = specialBlockTypes.isEmpty() ? EnumSet.noneOf(BlockType.class) : EnumSet.copyOf(specialBlockTypes);
+    this.seed = seed;
+    this.generation = generation;
+    this.population = population;
+    this.fitness = fitness;
+
+    int fittest = 0;
+    for (int i = 1; i < fitness.length; i++) {
+      if (fitness[i] > fitness[fittest]) {
+        fittest = i;
+      }
+    }
+    this.fittest = fittest;
+  }
+
+  /** Writes to a temporary file and then moves it into place, so a crash mid-write never corrupts the last checkpoint */
+  void save(Path path) throws IOException {
+    Files.createDirectories(path.toAbsolutePath().getParent());
+    Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+
+    try (var objectOutputStream = new ObjectOutputStream(new FileOutputStream(temporaryPath.toFile()))) {
+      objectOutputStream.writeObject(this);
+    }
+    Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /** @return The checkpoint stored at the given path, or null if there is none */
+  static TunerCheckpoint load(Path path) throws IOException {
+    if (!Files.exists(path)) {
+      return null;
+    }
+
+    try (var objectInputStream = new ObjectInputStream(new FileInputStream(path.toFile()))) {
+      return (TunerCheckpoint) objectInputStream.readObject();
+    } catch (ClassCastException | ClassNotFoundException e) {
+      throw new RuntimeException("Malformed tuner checkpoint " + path, e);
+    }
+  }
+
+}
@@ -0,0 +1,65 @@
+package com.github.tylersharpe.tetris.tuning;
+
+import com.github.tylersharpe.tetris.BlockType;
+import com.github.tylersharpe.tetris.Difficulty;
+import com.github.tylersharpe.tetris.ai.EvaluationWeights;
+import com.github.tylersharpe.tetris.ai.WeightsRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Command line entry point for training AI weights. Progress is checkpointed after every generation and picked up again
+ * on the next run, and the fittest weights so far are saved where the AI loads them from. Standard and special block
+ * training are checkpointed and saved separately. Arguments, all optional and
+ * positional:
+ * <ol>
+ *   <li>Difficulty display name, e.g. 'Medium' (default Hard)</li>
+ *   <li>Total number of generations to train to (default 20)</li>
+ *   <li>Population size (default 24)</li>
+ *   <li>Games per candidate per generation (default 16)</li>
+ *   <li>Worker threads (default: one per available processor)</li>
+ *   <li>'specials' to train with every special block type enabled (default: standard blocks only)</li>
+ * </ol>
+ */
+public class TunerMain {
+
+  public static void main(String[] args) throws IOException {
+    Difficulty difficulty = args.length > 0 ? Difficulty.fromDisplay(args[0]) : Difficulty.HARD;
+    int generations = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+    boolean specialBlocks = args.length > 5 && args[5].equalsIgnoreCase("specials");
+
+    WeightsRepository weightsRepository = new WeightsRepository();
+    GeneticTuner tuner = new GeneticTuner(difficulty, weightsRepository.getCheckpointPath(difficulty, specialBlocks));
+    if (args.length > 2) {
+      tuner.setPopulationSize(Integer.parseInt(args[2]));
+    }
+    if (args.length > 3) {
+      tuner.setGamesPerCandidate(Integer.parseInt(args[3]));
+    }
+    if (args.length > 4) {
+      tuner.setParallelism(Integer.parseInt(args[4]));
+    }
+    Collection<BlockType> specialBlockTypes = specialBlocks ? BlockType.getSpecialBlocks() : List.of();
+    tuner.setSpecialBlockTypes(specialBlockTypes);
+
+    tuner.setGenerationListener(checkpoint -> {
+      EvaluationWeights fittest = new EvaluationWeights(checkpoint.population[checkpoint.fittest]);
+      System.out.printf("Generation %d: best %.1f, mean %.1f, %s%n",
+        checkpoint.generation, checkpoint.fitness[checkpoint.fittest], Arrays.stream(checkpoint.fitness).average().orElse(0), fittest);
+
+      try {
+        weightsRepository.save(difficulty, specialBlocks, fittest, "Generation " + checkpoint.generation + ", special blocks " + specialBlockTypes);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+
+    tuner.run(generations);
+  }
+
+}
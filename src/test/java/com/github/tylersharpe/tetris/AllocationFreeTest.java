@@ -0,0 +1,97 @@
+package com.github.tylersharpe.tetris;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the hot paths run on every input allocate nothing once warmed up, by comparing the bytes the current thread
+ * has allocated before and after many calls
+ */
+class AllocationFreeTest {
+
+  private static final int WARM_UP_CALLS = 1_000_000;
+  private static final int MEASURED_CALLS = 100_000;
+  private static final int STACK_HEIGHT = 8;
+  private static final int BOTTOM_ROW = TetrisGame.VERTICAL_DIMENSION - 1;
+
+  private static final com.sun.management.ThreadMXBean THREADS =
+    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private TetrisGame game;
+  private int spawnRow, spawnColumn;
+
+  @BeforeEach
+  void setUp() {
+    THREADS.setThreadAllocatedMemoryEnabled(true);
+
+    game = new TetrisGame();
+    game.setDifficulty(Difficulty.MEDIUM);
+    game.reset(42);
+    game.pause();
+
+    // A ragged, mid-game stack with one hole per row so no line is complete
+    for (int row = BOTTOM_ROW - STACK_HEIGHT + 1; row <= BOTTOM_ROW; row++) {
+      int hole = (row * 7) % TetrisGame.HORIZONTAL_DIMENSION;
+      for (int col = 0; col < TetrisGame.HORIZONTAL_DIMENSION; col++) {
+        if (col != hole) {
+          game.setColor(row, col, Color.GRAY);
+        }
+      }
+    }
+
+    game.clearActiveBlock();
+    game.spawn(new Block(BlockType.T_BLOCK));
+    spawnRow = game.getActiveBlock().getRow();
+    spawnColumn = game.getActiveBlock().getColumn();
+  }
+
+  @Test
+  void moveBlock() {
+    assertAllocationFree(() -> {
+      game.moveActiveBlockLeft();
+      game.moveActiveBlockRight();
+    });
+  }
+
+  @Test
+  void rotateActiveBlock() {
+    assertAllocationFree(() -> game.rotateActiveBlock(Rotation.CLOCKWISE));
+  }
+
+  @Test
+  void superSlide() {
+    assertAllocationFree(() -> {
+      game.superSlideActiveBlockLeft();
+      game.superSlideActiveBlockRight();
+    });
+  }
+
+  @Test
+  void dropCurrentBlock() {
+    assertAllocationFree(() -> {
+      game.dropCurrentBlock();
+      game.getActiveBlock().setLocation(spawnRow, spawnColumn);
+    });
+  }
+
+  private static void assertAllocationFree(Runnable operation) {
+    // Warming up through the same path also gets any one-off allocation by the measurement itself out of the way
+    measureAllocatedBytes(operation, WARM_UP_CALLS);
+    assertEquals(0, measureAllocatedBytes(operation, MEASURED_CALLS), "Bytes allocated over " + MEASURED_CALLS + " calls");
+  }
+
+  private static long measureAllocatedBytes(Runnable operation, int calls) {
+    long threadId = Thread.currentThread().getId();
+    long before = THREADS.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < calls; i++) {
+      operation.run();
+    }
+    return THREADS.getThreadAllocatedBytes(threadId) - before;
+  }
+
+}